@@ -0,0 +1,22 @@
+/**
+ * A way of ageing whole columns of animal state at once: every row is
+ * made one step older and its hunger is taken from its food level.
+ * AnimalStore uses a kernel built on the incubating Vector API when the
+ * JVM has the jdk.incubator.vector module, and a plain loop otherwise.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public interface AgeingKernel
+{
+    /**
+     * Age every row by one step and take its hunger from its food level.
+     * @param ages The ages column.
+     * @param foodLevels The food levels column.
+     * @param hungers The hungers column.
+     * @param size The number of rows.
+     * @param maxAge The age beyond which an animal dies.
+     * @return A negative number if any row is now too old or starving.
+     */
+    int age(int[] ages, int[] foodLevels, int[] hungers, int size, int maxAge);
+}
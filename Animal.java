@@ -1,6 +1,3 @@
-import java.util.Random;
-import java.util.List;
-
 /**
  * Common elements of animals.
  *
@@ -11,14 +8,34 @@ public abstract class Animal extends Being
 {
     // The probability that an animal is infected at creation.
     private static final double INFECTION_CREATION_PROBABILITY = 0.10;
+    // How much faster an infected animal gets hungry.
+    static final int INFECTED_HUNGER = 5;
+    // Reusable neighbourhood cursors, one of each per thread: one for the
+    // free cells to move or give birth into, and one for looking around
+    // for food, mates and animals to infect.
+    private static final ThreadLocal<Neighbourhood> freeCells =
+        ThreadLocal.withInitial(Neighbourhood::new);
+    private static final ThreadLocal<Neighbourhood> nearbyCells =
+        ThreadLocal.withInitial(Neighbourhood::new);
     // Indicates whether the animal is infected.
-    protected Boolean infected; 
+    private boolean infected; 
+    // Whether the infection has been reported in a FieldChanges.
+    boolean infectionReported;
     
     // The gender of the animal, assigned at creation.
     protected Gender gender;
     
+    // The animal's age.
+    private int age;
+    
     // The current food level of the animal, decreases over time.
-    protected int foodLevel;
+    private int foodLevel;
+    
+    // The store holding the animal's age, food level and infection in
+    // columns, or null if they are held in the fields above.
+    private AnimalStore store;
+    // The animal's row in the store.
+    int storeIndex;
     
     // Enum representing the gender of the animal
     protected enum Gender {
@@ -34,6 +51,71 @@ public abstract class Animal extends Being
     {
         super(location, simulator);
         this.gender = (Randomizer.getRandom().nextInt(2) == 0) ? Gender.MALE : Gender.FEMALE;
+        if (simulator != null) {
+            store = simulator.getAnimalStore(this);
+            if (store != null) {
+                storeIndex = store.add(this, gender == Gender.MALE, location);
+            }
+        }
+    }
+    
+    /**
+     * Return the age beyond which the animal dies.
+     * @return The maximum age of the animal's species.
+     */
+    abstract protected int getMaxAge();
+    
+    /**
+     * Get the age of the animal.
+     * @return The animal's age.
+     */
+    protected int getAge() {
+        return store == null ? age : store.ages[storeIndex];
+    }
+    
+    /**
+     * Set the age of the animal.
+     * @param age The new age.
+     */
+    protected void setAge(int age) {
+        if (store == null) {
+            this.age = age;
+        } else {
+            store.ages[storeIndex] = age;
+        }
+    }
+    
+    /**
+     * Get the food level of the animal.
+     * @return The animal's food level.
+     */
+    protected int getFoodLevel() {
+        return store == null ? foodLevel : store.foodLevels[storeIndex];
+    }
+    
+    /**
+     * Set the food level of the animal.
+     * @param foodLevel The new food level.
+     */
+    protected void setFoodLevel(int foodLevel) {
+        if (store == null) {
+            this.foodLevel = foodLevel;
+        } else {
+            store.foodLevels[storeIndex] = foodLevel;
+        }
+    }
+    
+    /**
+     * Take the animal's state back from its store, which is
+     * dropping its row.
+     * @param age The animal's age.
+     * @param foodLevel The animal's food level.
+     */
+    void leaveStore(int age, int foodLevel) {
+        this.infected = isInfected();
+        this.age = age;
+        this.foodLevel = foodLevel;
+        this.store = null;
     }
     
     /**
@@ -46,14 +128,28 @@ public abstract class Animal extends Being
     
     /**
      * Check if the animal is infected.
-     * If the infection status is null, assume it is not infected.
      * @return True if the animal is infected, false otherwise.
      */
-    public Boolean isInfected() {
-        if (this.infected == null) {
-            this.infected = false;
+    public boolean isInfected() {
+        if (store == null) {
+            return this.infected;
+        }
+        return (store.flags[storeIndex] & AnimalStore.INFECTED) != 0;
+    }
+    
+    /**
+     * Infect the animal, and tell the field it lives in.
+     */
+    protected void setInfected() {
+        if (store == null) {
+            this.infected = true;
+        } else {
+            store.flags[storeIndex] |= AnimalStore.INFECTED;
+            store.hungers[storeIndex] = INFECTED_HUNGER;
+        }
+        if (alive && field != null) {
+            field.animalInfected(this);
         }
-        return this.infected;
     }
     
     /**
@@ -61,25 +157,101 @@ public abstract class Animal extends Being
      * @param field The field currently occupied.
      */
     protected void infectDisease(Field field) {
-        List<Location> adjacentLocations = field.getAdjacentLocations(this.location);
-        for (Location loc : adjacentLocations) {
-            Being beingAtLocation = field.getBeingAt(loc);
+        Neighbourhood adjacentLocations = adjacent(field);
+        while (adjacentLocations.hasNext()) {
+            Being beingAtLocation = field.getBeingAt(adjacentLocations.next());
             if (beingAtLocation != null && beingAtLocation instanceof Animal) {
                 Animal animal = (Animal) beingAtLocation;
                 if (!animal.isInfected() && Randomizer.getRandom().nextDouble() <= INFECTION_CREATION_PROBABILITY) {  
-                    animal.infected = true;
+                    animal.setInfected();
                 }
             }
         }
     }
 
+    /**
+     * Spend a step in the inactive phase: grow older and, if still
+     * alive, stay in the same cell and pass on any infection. This is
+     * what act does at that time of day, without looking for free cells.
+     * @param currentField The current state of the field.
+     * @param nextFieldState The new state being built.
+     */
+    protected void rest(Field currentField, Field nextFieldState) {
+        growOlder();
+        if (isAlive()) {
+            nextFieldState.placeBeing(this, getLocation());
+            infectDisease(currentField);
+        }
+    }
+
+    /**
+     * Get the free cells adjacent to the animal, in random order.
+     * The cursor returned is reused by the next call.
+     * @param field The field to look in.
+     * @return The free adjacent cells.
+     */
+    protected Neighbourhood freeAdjacent(Field field) {
+        return field.freeAdjacent(this.location, freeCells.get());
+    }
+
+    /**
+     * Get the cells adjacent to the animal, in random order.
+     * The cursor returned is reused by the next call.
+     * @param field The field to look in.
+     * @return The adjacent cells.
+     */
+    protected Neighbourhood adjacent(Field field) {
+        return field.adjacent(this.location, nearbyCells.get());
+    }
+
+    @Override
+    protected void setDead() {
+        super.setDead();
+        if (store != null) {
+            if ((store.flags[storeIndex] & AnimalStore.ALIVE) != 0) {
+                store.killed++;
+            }
+            store.flags[storeIndex] &= ~AnimalStore.ALIVE;
+            store.cells[storeIndex] = -1;
+        }
+    }
+    
+    @Override
+    protected void setLocation(Location location) {
+        super.setLocation(location);
+        if (store != null) {
+            store.cells[storeIndex] = store.cellOf(location);
+        }
+    }
+
+    /**
+     * Make the animal one step older and more hungry. This could result
+     * in the animal's death. Nothing is done if the animal's state is
+     * held in a store, which advances the whole species at once.
+     */
+    protected void growOlder() {
+        if (store == null) {
+            incrementAge();
+            incrementHunger();
+        }
+    }
+
+    /**
+     * Increase the age. This could result in the animal's death.
+     */
+    private void incrementAge() {
+        if (++age > getMaxAge()) {
+            setDead();
+        }
+    }
+
     /**
      * Make the animal more hungry. This could result in the animal's death.
      * If infected, hunger decreases by 5.
      */
-    protected void incrementHunger() {
-        if (isInfected()) {
-            foodLevel -= 5;
+    private void incrementHunger() {
+        if (infected) {
+            foodLevel -= INFECTED_HUNGER;
         } else {
             foodLevel--;
         }
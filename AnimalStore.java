@@ -0,0 +1,256 @@
+import java.util.Arrays;
+
+/**
+ * Columnar storage for the state of every animal of one species.
+ * Ages, food levels, flags and cells are kept in primitive arrays
+ * indexed by the animal's slot, and the Animal objects act as handles
+ * onto their row. This lets the per-step ageing, hunger and death
+ * checks for a whole species run as one linear pass over the arrays.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class AnimalStore
+{
+    // Bits of the flags column.
+    static final byte ALIVE = 1;
+    static final byte INFECTED = 2;
+    static final byte MALE = 4;
+    // The initial number of rows.
+    private static final int INITIAL_CAPACITY = 256;
+    // The kernel that ages whole columns.
+    static final AgeingKernel KERNEL = loadKernel();
+
+    // The age beyond which an animal of this species dies.
+    private final int maxAge;
+    // The width of the field, used to turn locations into cells.
+    private final int width;
+
+    // The columns. Row i describes animals[i].
+    Animal[] animals;
+    int[] ages;
+    int[] foodLevels;
+    // The food each animal loses per step: 1, or more once infected.
+    int[] hungers;
+    byte[] flags;
+    int[] cells;
+    // The number of rows in use.
+    private int size;
+    // The number of animals killed since the last call to advance.
+    int killed;
+
+    /**
+     * Create an empty store.
+     * @param maxAge The age beyond which an animal of the species dies.
+     * @param width The width of the field the animals live in.
+     */
+    public AnimalStore(int maxAge, int width)
+    {
+        this.maxAge = maxAge;
+        this.width = width;
+        animals = new Animal[INITIAL_CAPACITY];
+        ages = new int[INITIAL_CAPACITY];
+        foodLevels = new int[INITIAL_CAPACITY];
+        hungers = new int[INITIAL_CAPACITY];
+        flags = new byte[INITIAL_CAPACITY];
+        cells = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add a row for a newly created animal.
+     * @param animal The animal.
+     * @param male Whether the animal is male.
+     * @param location The animal's location.
+     * @return The index of the animal's row.
+     */
+    int add(Animal animal, boolean male, Location location)
+    {
+        if(size == animals.length) {
+            grow();
+        }
+        int index = size++;
+        animals[index] = animal;
+        ages[index] = 0;
+        foodLevels[index] = 0;
+        hungers[index] = 1;
+        flags[index] = (byte) (ALIVE | (male ? MALE : 0));
+        cells[index] = cellOf(location);
+        return index;
+    }
+
+    /**
+     * Age every live animal by one step and make it hungrier,
+     * killing those that are too old or starving. Rows of dead
+     * animals are dropped, and their final state is handed back
+     * to the animal objects.
+     */
+    public void advance()
+    {
+        boolean dying = age(ages, foodLevels, hungers, size, maxAge) < 0;
+        if(!dying && killed == 0) {
+            return;
+        }
+        int i = 0;
+        while(i < size) {
+            if((flags[i] & ALIVE) != 0) {
+                if(ages[i] <= maxAge && foodLevels[i] > 0) {
+                    i++;
+                    continue;
+                }
+                animals[i].setDead();
+            }
+            remove(i);
+        }
+        killed = 0;
+    }
+
+    /**
+     * Age every row by one step and take its hunger from its food
+     * level, with the Vector API kernel if the JVM has its module and
+     * with ageScalar otherwise. Rows of dead animals are updated as
+     * well; they are dropped afterwards anyway.
+     * @param ages The ages column.
+     * @param foodLevels The food levels column.
+     * @param hungers The hungers column.
+     * @param size The number of rows.
+     * @param maxAge The age beyond which an animal dies.
+     * @return A negative number if any row is now too old or starving.
+     */
+    static int age(int[] ages, int[] foodLevels, int[] hungers, int size, int maxAge)
+    {
+        return KERNEL.age(ages, foodLevels, hungers, size, maxAge);
+    }
+
+    /**
+     * Age every row one at a time. The loop has no branches and works
+     * on int columns only, so that the JIT compiler can still turn it
+     * into vector instructions when the Vector API is not there.
+     * @param ages The ages column.
+     * @param foodLevels The food levels column.
+     * @param hungers The hungers column.
+     * @param size The number of rows.
+     * @param maxAge The age beyond which an animal dies.
+     * @return A negative number if any row is now too old or starving.
+     */
+    static int ageScalar(int[] ages, int[] foodLevels, int[] hungers, int size, int maxAge)
+    {
+        int dying = 0;
+        for(int i = 0; i < size; i++) {
+            int age = ages[i] + 1;
+            int food = foodLevels[i] - hungers[i];
+            ages[i] = age;
+            foodLevels[i] = food;
+            // The sign bit is set if age > maxAge or food <= 0.
+            dying |= (maxAge - age) | (food - 1);
+        }
+        return dying;
+    }
+
+    /**
+     * Load the Vector API kernel. It is only there if it was compiled,
+     * and only links if the JVM was started with
+     * --add-modules jdk.incubator.vector.
+     * @return The Vector API kernel, or the scalar loop if it cannot
+     *         be loaded.
+     */
+    private static AgeingKernel loadKernel()
+    {
+        try {
+            return (AgeingKernel) Class.forName("VectorAgeing").getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError e) {
+            return AnimalStore::ageScalar;
+        }
+    }
+
+    /**
+     * Let every live animal rest for a step, in place of calling act
+     * on each of them: it stays in its cell and may infect its
+     * neighbours. Ageing, hunger and death are left to advance. This
+     * is used for a species in its inactive phase, whose act would do
+     * no more than that.
+     * @param currentField The current state of the field.
+     * @param nextFieldState The new state being built.
+     */
+    public void rest(Field currentField, Field nextFieldState)
+    {
+        // Place the whole species first, so that the cells are taken
+        // before any moving animal looks for a free one.
+        for(int i = 0; i < size; i++) {
+            if((flags[i] & ALIVE) != 0) {
+                nextFieldState.placeBeing(animals[i], nextFieldState.getLocation(cells[i]));
+            }
+        }
+        for(int i = 0; i < size; i++) {
+            if((flags[i] & ALIVE) != 0) {
+                animals[i].infectDisease(currentField);
+            }
+        }
+    }
+
+    /**
+     * @return The number of animals held, including any that died
+     *         since the last call to advance.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Remove every animal from the store.
+     */
+    public void clear()
+    {
+        for(int i = 0; i < size; i++) {
+            animals[i].leaveStore(ages[i], foodLevels[i]);
+            animals[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Return the cell index of a location, or -1 for no location.
+     * @param location The location, which may be null.
+     * @return The cell index.
+     */
+    int cellOf(Location location)
+    {
+        return location == null ? -1 : location.row() * width + location.col();
+    }
+
+    /**
+     * Remove a row by moving the last row into its place.
+     * @param index The row to remove.
+     */
+    private void remove(int index)
+    {
+        animals[index].leaveStore(ages[index], foodLevels[index]);
+        int last = --size;
+        if(index != last) {
+            Animal moved = animals[last];
+            animals[index] = moved;
+            ages[index] = ages[last];
+            foodLevels[index] = foodLevels[last];
+            hungers[index] = hungers[last];
+            flags[index] = flags[last];
+            cells[index] = cells[last];
+            moved.storeIndex = index;
+        }
+        animals[last] = null;
+    }
+
+    /**
+     * Double the capacity of every column.
+     */
+    private void grow()
+    {
+        int capacity = animals.length * 2;
+        animals = Arrays.copyOf(animals, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        foodLevels = Arrays.copyOf(foodLevels, capacity);
+        hungers = Arrays.copyOf(hungers, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        cells = Arrays.copyOf(cells, capacity);
+    }
+}
@@ -1,4 +1,3 @@
-import java.util.Random;
 /**
  * Common elements of all beings.
  *
@@ -7,14 +6,23 @@ import java.util.Random;
  */
 public abstract class Being
 {
-    // A shared random number generator
-    private final Random rand = Randomizer.getRandom();
     // Whether the being is alive or not.
     protected boolean alive;
     // The being's position.
     protected Location location;
     // Reference to the simulator
     protected Simulator simulator;
+    // The field the being was last placed in, or null if it has been
+    // removed from it. The field is told when the being dies.
+    Field field;
+    // The being's index in the being list of that field, so that the
+    // field can remove it in constant time.
+    int slot;
+    // The cell the being was last placed in, and the cell it held in the
+    // field it was in before, or -1 if it was not in one. They are used
+    // to work out what changed in a step.
+    int cell;
+    int previousCell = -1;
     
     /**
      * Constructor for objects of class Being.
@@ -35,6 +43,22 @@ public abstract class Being
      */
     abstract public void act(Field currentField, Field nextFieldState);
     
+    /**
+     * Return the species of the being.
+     * @return The being's species.
+     */
+    abstract public Species getSpecies();
+    
+    /**
+     * Return the parameters of the simulation the being belongs to.
+     * @return The simulator's parameters, or the defaults if the being
+     *         belongs to no simulator.
+     */
+    protected SimulationParameters getParameters()
+    {
+        return simulator == null ? SimulationParameters.DEFAULTS : simulator.getParameters();
+    }
+
     /**
      * Check whether the being is alive or not.
      * @return true if the being is still alive.
@@ -49,6 +73,9 @@ public abstract class Being
      */
     protected void setDead()
     {
+        if(alive && field != null) {
+            field.beingDied(this);
+        }
         alive = false;
         location = null;
     }
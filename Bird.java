@@ -1,6 +1,4 @@
-import java.util.List;
 import java.util.Random;
-import java.util.Iterator;
 
 /**
  * A simple model of a bird.
@@ -11,27 +9,20 @@ import java.util.Iterator;
  */
 public class Bird extends Animal
 {
-    // Characteristics shared by all birds (class variables).
+    // The default characteristics of birds (class variables). A
+    // simulation can override them through its SimulationParameters.
     
     // The age at which a bird can start to breed.
-    private static final int BREEDING_AGE = 2;
+    static final int BREEDING_AGE = 2;
     // The age to which a bird can live.
-    private static final int MAX_AGE = 70;
+    static final int MAX_AGE = 70;
     // The likelihood of a bird breeding.
-    private static final double BREEDING_PROBABILITY = 0.98;
+    static final double BREEDING_PROBABILITY = 0.98;
     // The maximum number of births.
-    private static final int MAX_LITTER_SIZE = 12;
+    static final int MAX_LITTER_SIZE = 12;
     // The food value of a single plant. In effect, this is the
     // number of steps a bird can go before it has to eat again.
-    private static final int FRUIT_FOOD_VALUE = 100;
-    
-    
-    // A shared random number generator to control breeding.
-    private static final Random rand = Randomizer.getRandom();
-    
-    // Individual characteristics (instance fields).
-    // The bird's age.
-    private int age;
+    static final int FRUIT_FOOD_VALUE = 100;
 
     /**
      * Create a new bird. A bird may be created with age
@@ -44,11 +35,11 @@ public class Bird extends Animal
     public Bird(boolean randomAge, Location location, Simulator simulator)
     {
         super(location, simulator);
-        age = 0;
+        Random rand = Randomizer.getRandom();
         if(randomAge) {
-            age = rand.nextInt(MAX_AGE);
+            setAge(rand.nextInt(getParameters().getMaxAge(getSpecies())));
         }
-        foodLevel = rand.nextInt(FRUIT_FOOD_VALUE);
+        setFoodLevel(rand.nextInt(getParameters().getMaxFoodValue(getSpecies())));
     }
     
     /**
@@ -60,11 +51,9 @@ public class Bird extends Animal
      */
     public void act(Field currentField, Field nextFieldState)
     {
-        incrementAge();
-        incrementHunger();
+        growOlder();
         if(isAlive()) {
-            List<Location> freeLocations = 
-                nextFieldState.getFreeAdjacentLocations(getLocation());
+            Neighbourhood freeLocations = freeAdjacent(nextFieldState);
             if (simulator.getTimeOfDay().equals("daytime")){
                 if(!freeLocations.isEmpty()) {
                     giveBirth(nextFieldState, freeLocations);
@@ -73,7 +62,7 @@ public class Bird extends Animal
                 Location nextLocation = findFood(currentField, nextFieldState);
                 if(nextLocation == null && ! freeLocations.isEmpty() ) {
                     // No food found - try to move to a free location.
-                    nextLocation = freeLocations.remove(0);
+                    nextLocation = nextFieldState.getLocation(freeLocations.next());
                 }
                 // See if it was possible to move.
                 if(nextLocation != null ) {
@@ -96,26 +85,25 @@ public class Bird extends Animal
         }
     }
 
+    @Override
+    protected int getMaxAge() {
+        return getParameters().getMaxAge(getSpecies());
+    }
+
+    @Override
+    public Species getSpecies() {
+        return Species.BIRD;
+    }
+
     @Override
     public String toString() {
         return "bird{" +
-                "age=" + age +
+                "age=" + getAge() +
                 ", alive=" + isAlive() +
                 ", location=" + getLocation() +
                 '}';
     }
 
-    /**
-     * Increase the age.
-     * This could result in the bird's death.
-     */
-    private void incrementAge()
-    {
-        if(++age > MAX_AGE) {
-            setDead();
-        }
-    }
-
     /**
      * Look for fruits adjacent to the current location.
      * Only the first fruit is eaten.
@@ -124,17 +112,16 @@ public class Bird extends Animal
      */
     private Location findFood(Field field, Field nextFieldState)
     {
-        List<Location> adjacent = field.getAdjacentLocations(getLocation());
-        Iterator<Location> it = adjacent.iterator();
+        Neighbourhood adjacent = adjacent(field);
         Location foodLocation = null;
-        while(foodLocation == null && it.hasNext()) {
-            Location loc = it.next();
-            Being being = field.getBeingAt(loc);
+        while(foodLocation == null && adjacent.hasNext()) {
+            int cell = adjacent.next();
+            Being being = field.getBeingAt(cell);
             if(being instanceof Fruit fruit) {
                 if(fruit.isAlive()) {
                     fruit.incrementAge(nextFieldState, true);
-                    foodLevel = FRUIT_FOOD_VALUE;
-                    foodLocation = loc;
+                    setFoodLevel(getParameters().getFoodValue(getSpecies(), Species.FRUIT));
+                    foodLocation = field.getLocation(cell);
                 }
             }
         }
@@ -146,7 +133,7 @@ public class Bird extends Animal
      * New births will be made into free adjacent locations.
      * @param freeLocations The locations that are free in the current field.
      */
-    private void giveBirth(Field nextFieldState, List<Location> freeLocations)
+    private void giveBirth(Field nextFieldState, Neighbourhood freeLocations)
     {
         // New birds are born into adjacent locations.
         // Get a list of adjacent free locations.
@@ -154,7 +141,7 @@ public class Bird extends Animal
             int births = breed(nextFieldState);
             if(births > 0) {
                 for (int b = 0; b < births && !freeLocations.isEmpty(); b++) {
-                    Location loc = freeLocations.remove(0);
+                    Location loc = nextFieldState.getLocation(freeLocations.next());
                     Bird young = new Bird(false, loc, simulator);
                     nextFieldState.placeBeing(young, loc);
                 }
@@ -169,9 +156,10 @@ public class Bird extends Animal
      */
     private int breed(Field field)
     {
+        Random rand = Randomizer.getRandom();
         int births;
-        if (canBreed(field) && rand.nextDouble() <= BREEDING_PROBABILITY) {
-            births = rand.nextInt(MAX_LITTER_SIZE) + 1;  
+        if (canBreed(field) && rand.nextDouble() <= getParameters().getBreedingProbability(getSpecies())) {
+            births = rand.nextInt(getParameters().getMaxLitterSize(getSpecies())) + 1;  
         }
         else {
             births = 0;
@@ -186,20 +174,9 @@ public class Bird extends Animal
      */
     private boolean canBreed(Field field)
     {
-        if (this.gender == Gender.FEMALE && age >= BREEDING_AGE) {
-                List<Location> adjacentLocations = field.getAdjacentLocations(this.location);
-    
-                for (Location loc : adjacentLocations) {
-                    Being beingAtLocation = field.getBeingAt(loc);  
-                    
-                    if (beingAtLocation != null && beingAtLocation instanceof Bird) {
-                        Bird male = (Bird) beingAtLocation;
-                        if (male.gender == Gender.MALE) {
-                            return true; 
-                        }
-                    }
-                }
-            }
+        if (this.gender == Gender.FEMALE && getAge() >= getParameters().getBreedingAge(getSpecies())) {
+            return field.hasAdjacentMale(this.location, getSpecies());
+        }
         return false;
     } 
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+/**
+ * Report the progress of a simulation on the console: the population
+ * after every step, and the time of day and weather when they change.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class ConsoleObserver implements SimulatorObserver
+{
+    // The simulator being reported on.
+    private final Simulator simulator;
+
+    /**
+     * Create a console report for a simulator.
+     * @param simulator The simulator being reported on.
+     */
+    public ConsoleObserver(Simulator simulator)
+    {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public void showStatus(int step, Field field)
+    {
+        // Time of day changes every 10 steps and weather every 20.
+        if(step > 0 && step % 10 == 0) {
+            System.out.println("It is now " + simulator.getTimeOfDay());
+        }
+        if(step > 0 && step % 20 == 0) {
+            System.out.println("The weather today is " + simulator.getWeather());
+        }
+        field.fieldStats();
+    }
+}
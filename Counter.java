@@ -51,6 +51,15 @@ public class Counter
         count++;
     }
     
+    /**
+     * Increment the current count by the given amount.
+     * @param amount The number to add to the count.
+     */
+    public void increment(int amount)
+    {
+        count += amount;
+    }
+    
     /**
      * Reset the current count to zero.
      */
@@ -75,4 +84,13 @@ public class Counter
     {
         infectionCount++;
     }
+    
+    /**
+     * Increment the current infection count by the given amount.
+     * @param amount The number to add to the infection count.
+     */
+    public void incrementInfections(int amount)
+    {
+        infectionCount += amount;
+    }
 }
@@ -1,5 +1,3 @@
-import java.util.List;
-import java.util.Iterator;
 import java.util.Random;
 
 /**
@@ -11,27 +9,22 @@ import java.util.Random;
  */
 public class Crocodile extends Animal
 {
-    // Characteristics shared by all crocodiles (class variables).
+    // The default characteristics of crocodiles (class variables). A
+    // simulation can override them through its SimulationParameters.
     
     // The age at which a crocodile can start to breed.
-    private static final int BREEDING_AGE = 3;
+    static final int BREEDING_AGE = 3;
     // The age to which a crocodile can live.
-    private static final int MAX_AGE = 100;
+    static final int MAX_AGE = 100;
     // The likelihood of a crocodile breeding.
-    private static final double BREEDING_PROBABILITY = 0.95;
+    static final double BREEDING_PROBABILITY = 0.95;
     // The maximum number of births.
-    private static final int MAX_LITTER_SIZE = 20;
+    static final int MAX_LITTER_SIZE = 20;
     // The food value of a single prey. In effect, this is the
     // number of steps a crocodile can go before it has to eat again.
-    private static final int BIRD_FOOD_VALUE = 20;
-    private static final int FISH_FOOD_VALUE = 80;
-    // A shared random number generator to control breeding.
-    private static final Random rand = Randomizer.getRandom();
+    static final int BIRD_FOOD_VALUE = 20;
+    static final int FISH_FOOD_VALUE = 80;
 
-    // Individual characteristics (instance fields).
-    // The crocodile's age.
-    private int age;
-    
     /**
      * Create a crocodile. A crocodile can be created as a new born (age zero
      * and not hungry) or with a random age and food level.
@@ -43,13 +36,14 @@ public class Crocodile extends Animal
     public Crocodile(boolean randomAge, Location location, Simulator simulator)
     {
         super(location, simulator);
+        Random rand = Randomizer.getRandom();
         if(randomAge) {
-            age = rand.nextInt(MAX_AGE);
+            setAge(rand.nextInt(getParameters().getMaxAge(getSpecies())));
         }
         else {
-            age = 0;
+            setAge(0);
         }
-        foodLevel = rand.nextInt(Math.max(BIRD_FOOD_VALUE,FISH_FOOD_VALUE));
+        setFoodLevel(rand.nextInt(getParameters().getMaxFoodValue(getSpecies())));
     }
 
     /**
@@ -63,12 +57,10 @@ public class Crocodile extends Animal
      */
     public void act(Field currentField, Field nextFieldState)
     {
-        incrementAge();
-        incrementHunger();
+        growOlder();
 
         if(isAlive()) {
-            List<Location> freeLocations =
-                nextFieldState.getFreeAdjacentLocations(getLocation());
+            Neighbourhood freeLocations = freeAdjacent(nextFieldState);
             if (simulator.getTimeOfDay().equals("night")){
                 if(!freeLocations.isEmpty() ) {
                     giveBirth(nextFieldState, freeLocations);
@@ -77,7 +69,7 @@ public class Crocodile extends Animal
                 Location nextLocation = findFood(currentField);
                 if(nextLocation == null && ! freeLocations.isEmpty() ) {
                     // No food found - try to move to a free location.
-                    nextLocation = freeLocations.remove(0);
+                    nextLocation = nextFieldState.getLocation(freeLocations.next());
                 }
                 // See if it was possible to move.
                 if(nextLocation != null ) {
@@ -101,26 +93,26 @@ public class Crocodile extends Animal
         }
     }
 
+    @Override
+    protected int getMaxAge() {
+        return getParameters().getMaxAge(getSpecies());
+    }
+
+    @Override
+    public Species getSpecies() {
+        return Species.CROCODILE;
+    }
+
     @Override
     public String toString() {
         return "crocodile{" +
-        "age=" + age +
+        "age=" + getAge() +
         ", alive=" + isAlive() +
         ", location=" + getLocation() +
-        ", foodLevel=" + foodLevel +
+        ", foodLevel=" + getFoodLevel() +
         '}';
     }
 
-    /**
-     * Increase the age. This could result in the crocodile's death.
-     */
-    private void incrementAge()
-    {
-        if(++age > MAX_AGE) {
-            setDead();
-        }
-    }
-
     /**
      * Look for food adjacent to the current location.
      * Only the first live food is eaten.
@@ -130,24 +122,23 @@ public class Crocodile extends Animal
      */
     private Location findFood(Field field)
     {
-        List<Location> adjacent = field.getAdjacentLocations(getLocation());
-        Iterator<Location> it = adjacent.iterator();
+        Neighbourhood adjacent = adjacent(field);
         Location foodLocation = null;
-        while(foodLocation == null && it.hasNext()) {
-            Location loc = it.next();
-            Being being = field.getBeingAt(loc);
+        while(foodLocation == null && adjacent.hasNext()) {
+            int cell = adjacent.next();
+            Being being = field.getBeingAt(cell);
             if(being instanceof Bird bird && !simulator.getWeather().equals("foggy")) {
                 if(bird.isAlive()) {
                     bird.setDead();
-                    foodLevel = BIRD_FOOD_VALUE;
-                    foodLocation = loc;
+                    setFoodLevel(getParameters().getFoodValue(getSpecies(), Species.BIRD));
+                    foodLocation = field.getLocation(cell);
                 }
             }
             if(being instanceof Fish fish && !simulator.getWeather().equals("foggy")) {
                 if(fish.isAlive()) {
                     fish.setDead();
-                    foodLevel = FISH_FOOD_VALUE;
-                    foodLocation = loc;
+                    setFoodLevel(getParameters().getFoodValue(getSpecies(), Species.FISH));
+                    foodLocation = field.getLocation(cell);
                 }
             }
         }
@@ -159,7 +150,7 @@ public class Crocodile extends Animal
      * New births will be made into free adjacent locations.
      * @param freeLocations The locations that are free in the current field.
      */
-    private void giveBirth(Field nextFieldState, List<Location> freeLocations)
+    private void giveBirth(Field nextFieldState, Neighbourhood freeLocations)
     {
         // New birds are born into adjacent locations.
         // Get a list of adjacent free locations.
@@ -167,7 +158,7 @@ public class Crocodile extends Animal
             int births = breed(nextFieldState);
             if(births > 0) {
                 for (int b = 0; b < births && !freeLocations.isEmpty(); b++) {
-                    Location loc = freeLocations.remove(0);
+                    Location loc = nextFieldState.getLocation(freeLocations.next());
                     Crocodile young = new Crocodile(false, loc, simulator);
                     nextFieldState.placeBeing(young, loc);
                 }
@@ -182,9 +173,10 @@ public class Crocodile extends Animal
      */
     private int breed(Field field)
     {
+        Random rand = Randomizer.getRandom();
         int births;
-        if (canBreed(field) && rand.nextDouble() <= BREEDING_PROBABILITY) {
-            births = rand.nextInt(MAX_LITTER_SIZE) + 1;  
+        if (canBreed(field) && rand.nextDouble() <= getParameters().getBreedingProbability(getSpecies())) {
+            births = rand.nextInt(getParameters().getMaxLitterSize(getSpecies())) + 1;  
         }
         else {
             births = 0;
@@ -199,20 +191,9 @@ public class Crocodile extends Animal
      */
     private boolean canBreed(Field field)
     {
-        if (this.gender == Gender.FEMALE && age >= BREEDING_AGE) {
-                List<Location> adjacentLocations = field.getAdjacentLocations(this.location);
-    
-                for (Location loc : adjacentLocations) {
-                    Being beingAtLocation = field.getBeingAt(loc);  
-                    
-                    if (beingAtLocation != null && beingAtLocation instanceof Crocodile) {
-                        Crocodile male = (Crocodile) beingAtLocation;
-                        if (male.gender == Gender.MALE) {
-                            return true; 
-                        }
-                    }
-                }
-            }
+        if (this.gender == Gender.FEMALE && getAge() >= getParameters().getBreedingAge(getSpecies())) {
+            return field.hasAdjacentMale(this.location, getSpecies());
+        }
         return false;
     }
 }
@@ -0,0 +1,137 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Run many independent replicates of a simulation at once and collect
+ * the population of every species after every step. Each replicate is
+ * a headless simulator with its own seed, so replicates share no state
+ * and can run on all cores of one JVM. The same base seed always gives
+ * the same results, whatever the number of threads.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class Ensemble
+{
+    // The size of the field of every replicate.
+    private final int depth, width;
+    // The number of steps every replicate is run for.
+    private final int steps;
+    // The number of threads the replicates are run on.
+    private final int threads;
+
+    /**
+     * Create an ensemble runner.
+     * @param depth Depth of each replicate's field.
+     * @param width Width of each replicate's field.
+     * @param steps The number of steps each replicate is run for.
+     * @param threads The number of replicates run at once.
+     */
+    public Ensemble(int depth, int width, int steps, int threads)
+    {
+        this.depth = depth;
+        this.width = width;
+        this.steps = steps;
+        this.threads = threads;
+    }
+
+    /**
+     * Run the replicates and wait for them all to finish. Replicate i
+     * is seeded with baseSeed + i. Replicates are run for every step,
+     * even after a species has died out.
+     * @param replicates The number of replicates.
+     * @param baseSeed The seed of the first replicate.
+     * @return The population series of every replicate.
+     */
+    public EnsembleResult run(int replicates, long baseSeed)
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<int[][]>> runs = new ArrayList<>();
+            for(int i = 0; i < replicates; i++) {
+                long seed = baseSeed + i;
+                runs.add(pool.submit(() -> runReplicate(seed)));
+            }
+            int[][][] series = new int[replicates][][];
+            for(int i = 0; i < replicates; i++) {
+                series[i] = runs.get(i).get();
+            }
+            return new EnsembleResult(series);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The ensemble was interrupted.", e);
+        }
+        catch(ExecutionException e) {
+            throw new IllegalStateException("A replicate failed.", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Run one replicate.
+     * @param seed The replicate's seed.
+     * @return The population of each species after the reset and after
+     *         every step, indexed by step and then species ordinal.
+     */
+    private int[][] runReplicate(long seed)
+    {
+        int[][] populations = new int[steps + 1][];
+        Simulator simulator = Simulator.createHeadless(depth, width, false, seed);
+        record(populations, 0, simulator.getField());
+        simulator.addObserver((step, field) -> record(populations, step, field));
+        for(int step = 0; step < steps; step++) {
+            simulator.simulateOneStep();
+        }
+        return populations;
+    }
+
+    /**
+     * Record the population of each species in a field.
+     */
+    private static void record(int[][] populations, int step, Field field)
+    {
+        Species[] species = Species.values();
+        int[] counts = new int[species.length];
+        for(Species aSpecies : species) {
+            counts[aSpecies.ordinal()] = field.getPopulation(aSpecies);
+        }
+        populations[step] = counts;
+    }
+
+    /**
+     * Run an ensemble and print the bands of every species at intervals.
+     * @param args Optional depth, width, steps, replicates and threads.
+     */
+    public static void main(String[] args)
+    {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 80;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int replicates = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int threads = args.length > 4 ? Integer.parseInt(args[4])
+                                      : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        EnsembleResult result = new Ensemble(depth, width, steps, threads).run(replicates, 1111);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d replicates of %d steps in %.2f s on %d threads%n",
+                          replicates, steps, seconds, threads);
+        System.out.printf("%-10s %5s %10s %10s %10s %10s%n", "species", "step", "mean", "p10", "p50", "p90");
+        int interval = Math.max(1, steps / 10);
+        for(Species species : Species.values()) {
+            for(int step = 0; step <= steps; step += interval) {
+                System.out.printf("%-10s %5d %10.1f %10d %10d %10d%n", species, step,
+                                  result.getMean(species, step),
+                                  result.getPercentile(species, step, 10),
+                                  result.getPercentile(species, step, 50),
+                                  result.getPercentile(species, step, 90));
+            }
+        }
+    }
+}
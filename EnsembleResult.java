@@ -0,0 +1,85 @@
+import java.util.Arrays;
+
+/**
+ * The population series of every replicate of an ensemble, with the
+ * mean and percentile bands across replicates.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class EnsembleResult
+{
+    // The populations, indexed by replicate, step and species ordinal.
+    private final int[][][] series;
+
+    /**
+     * @param series The populations, indexed by replicate, step and
+     *        species ordinal.
+     */
+    public EnsembleResult(int[][][] series)
+    {
+        this.series = series;
+    }
+
+    /**
+     * @return The number of replicates.
+     */
+    public int getReplicates()
+    {
+        return series.length;
+    }
+
+    /**
+     * @return The number of steps each replicate was run for.
+     */
+    public int getSteps()
+    {
+        return series.length == 0 ? 0 : series[0].length - 1;
+    }
+
+    /**
+     * Return the population of a species in one replicate.
+     * @param replicate The replicate.
+     * @param species The species.
+     * @param step The step, where 0 is the state after the reset.
+     * @return The population.
+     */
+    public int getPopulation(int replicate, Species species, int step)
+    {
+        return series[replicate][step][species.ordinal()];
+    }
+
+    /**
+     * Return the mean population of a species across the replicates.
+     * @param species The species.
+     * @param step The step, where 0 is the state after the reset.
+     * @return The mean population.
+     */
+    public double getMean(Species species, int step)
+    {
+        long total = 0;
+        for(int[][] replicate : series) {
+            total += replicate[step][species.ordinal()];
+        }
+        return (double) total / series.length;
+    }
+
+    /**
+     * Return a percentile of the population of a species across the
+     * replicates, using the nearest-rank method.
+     * @param species The species.
+     * @param step The step, where 0 is the state after the reset.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The population at that percentile.
+     */
+    public int getPercentile(Species species, int step, double percentile)
+    {
+        int[] values = new int[series.length];
+        for(int i = 0; i < series.length; i++) {
+            values[i] = series[i][step][species.ordinal()];
+        }
+        Arrays.sort(values);
+        int rank = (int) Math.ceil(percentile / 100 * values.length);
+        return values[Math.max(rank - 1, 0)];
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+/**
+ * The growth ticks at which plants are due to expire, kept as a binary
+ * heap so that the simulator only looks at the plants that expire on a
+ * step, rather than at every plant. Plants that expire on the same
+ * tick come out in cell order, so the order does not depend on the
+ * order in which they were scheduled.
+ *
+ * A plant may be scheduled more than once, e.g. when it is given a
+ * random age after it was created, and it may die before its tick.
+ * Entries are never removed early: the caller checks whether a plant
+ * it is given is still alive and really has expired.
+ *
+ * Plants can be born while a step runs on several threads, so adding
+ * to the schedule is synchronized.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class ExpirySchedule
+{
+    // The initial number of entries the schedule can hold.
+    private static final int INITIAL_CAPACITY = 256;
+
+    // The entries, as a heap ordered by key. The key of an entry holds
+    // its tick in the upper half and the plant's cell in the lower.
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Plant[] plants = new Plant[INITIAL_CAPACITY];
+    // The number of entries held.
+    private int size;
+
+    /**
+     * Schedule a plant to be looked at on a growth tick.
+     * @param plant The plant.
+     * @param tick The growth tick at which it expires.
+     * @param cell The plant's cell.
+     */
+    public synchronized void add(Plant plant, int tick, int cell)
+    {
+        if(size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            plants = Arrays.copyOf(plants, size * 2);
+        }
+        long key = ((long) tick << 32) | (cell & 0xFFFFFFFFL);
+        int index = size++;
+        // Sift the new entry up from the bottom of the heap.
+        while(index > 0) {
+            int parent = (index - 1) >>> 1;
+            if(keys[parent] <= key) {
+                break;
+            }
+            keys[index] = keys[parent];
+            plants[index] = plants[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        plants[index] = plant;
+    }
+
+    /**
+     * Take the next plant due by a growth tick.
+     * @param tick The current growth tick.
+     * @return The plant with the earliest tick, if that tick is no
+     *         later than the given one; otherwise null.
+     */
+    public synchronized Plant poll(int tick)
+    {
+        if(size == 0 || (int) (keys[0] >> 32) > tick) {
+            return null;
+        }
+        Plant first = plants[0];
+        long key = keys[--size];
+        Plant last = plants[size];
+        plants[size] = null;
+        // Sift the last entry down from the top of the heap.
+        int index = 0;
+        while(true) {
+            int child = 2 * index + 1;
+            if(child >= size) {
+                break;
+            }
+            if(child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if(key <= keys[child]) {
+                break;
+            }
+            keys[index] = keys[child];
+            plants[index] = plants[child];
+            index = child;
+        }
+        if(size > 0) {
+            keys[index] = key;
+            plants[index] = last;
+        }
+        return first;
+    }
+
+    /**
+     * @return The number of entries held, including those of plants
+     *         that have died.
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Remove every entry.
+     */
+    public synchronized void clear()
+    {
+        Arrays.fill(plants, 0, size, null);
+        size = 0;
+    }
+}
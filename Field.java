@@ -8,16 +8,70 @@ import java.util.*;
  */
 public class Field
 {
-    // A random number generator for providing random locations.
-    private static final Random rand = Randomizer.getRandom();
+    // The seed for generating the neighbour orders, which are fixed
+    // and independent of the simulation's own randomness.
+    private static final long NEIGHBOUR_ORDER_SEED = 2024;
+    // The row and column offsets of the eight neighbours of a cell.
+    private static final int[] ROW_OFFSETS = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] COL_OFFSETS = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    // Precomputed random orders in which to visit the neighbours.
+    // A query picks one at random instead of shuffling a list.
+    private static final int[][] NEIGHBOUR_ORDERS = shuffledOrders(256);
+    // All species, in ordinal order.
+    private static final Species[] SPECIES = Species.values();
+    // The bit of each neighbour in a 3x3 neighbourhood mask, in which
+    // bit (rowOffset + 1) * 3 + (colOffset + 1) stands for a cell.
+    private static final int[] NEIGHBOUR_BITS = neighbourBits();
+    // The bit of the centre cell in a neighbourhood mask.
+    private static final int CENTRE_BIT = 1 << 4;
     
     // The dimensions of the field.
     private final int depth, width;
     
-    // A Map field that maps Location objects to Being objects
-    private final Map<Location, Being> field = new HashMap<>();
-    // A List field to store Being objects
+    // The occupant of each cell, stored row by row.
+    private final Being[] cells;
+    // The canonical Location of each cell, stored row by row. Fields
+    // of the same size can share this table, so locations handed out
+    // by them are identical objects.
+    private final Location[] locations;
+    // A List field to store Being objects. Each being records its index
+    // in this list, and removal moves the last being into the gap.
     private final List<Being> beings = new ArrayList<>();
+    // The cell of each being in the list, by slot. A being's own cell
+    // is that of the last field it was placed in, which may be another.
+    private int[] beingCells = new int[64];
+    // The number of live beings of each species, indexed by ordinal.
+    // Kept up to date as beings are placed, replaced, die or are infected.
+    private final int[] population = new int[SPECIES.length];
+    // The number of live infected animals of each species.
+    private final int[] infections = new int[SPECIES.length];
+    // The number of 64-bit words holding one row of a bitmap.
+    private final int wordsPerRow;
+    // A bitmap of the cells holding a live being, one bit per cell,
+    // each row starting on a new word.
+    private final long[] occupied;
+    // A bitmap of the cells holding a live animal.
+    private final long[] animals;
+    // A bitmap of the cells holding a live plant.
+    private final long[] plants;
+    // For each animal species, a bitmap of the cells holding a live male.
+    // Null for plant species.
+    private final long[][] males;
+    // Whether beings are being placed from several threads at once. If
+    // so, the being list and population counts are left alone and are
+    // rebuilt by endParallelUpdate; the cells and bitmaps stay current.
+    private boolean parallelUpdate;
+    // Whether placements are being collected as intents rather than
+    // filling cells. While they are, the bitmaps show the occupancy of
+    // the field the intents are based on.
+    private boolean collectingIntents;
+    // Whether plants stay in the field from one state to the next
+    // rather than being placed again every step. Kept plants are not in
+    // the being list, and the field does not become their field.
+    private boolean keepingPlants;
+    // While plants are kept, a bitmap of the cells where a plant has
+    // arrived or left since another state last caught up with this one.
+    private final long[] plantChanges;
 
     /**
      * Represent a field of the given dimensions.
@@ -25,29 +79,457 @@ public class Field
      * @param width The width of the field.
      */
     public Field(int depth, int width)
+    {
+        this(depth, width, new Location[depth * width]);
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                locations[row * width + col] = new Location(row, col);
+            }
+        }
+    }
+
+    /**
+     * Represent an empty field of the same dimensions as another one.
+     * The two fields share their Location objects.
+     * @param other The field to take the dimensions from.
+     */
+    public Field(Field other)
+    {
+        this(other.depth, other.width, other.locations);
+    }
+
+    /**
+     * Represent an empty field with the given location table.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     * @param locations The canonical location of each cell.
+     */
+    private Field(int depth, int width, Location[] locations)
     {
         this.depth = depth;
         this.width = width;
+        this.locations = locations;
+        cells = new Being[depth * width];
+        wordsPerRow = (width + 63) / 64;
+        occupied = new long[depth * wordsPerRow];
+        animals = new long[depth * wordsPerRow];
+        plants = new long[depth * wordsPerRow];
+        plantChanges = new long[depth * wordsPerRow];
+        males = new long[SPECIES.length][];
+        for(Species species : SPECIES) {
+            if(species.isAnimal()) {
+                males[species.ordinal()] = new long[depth * wordsPerRow];
+            }
+        }
     }
 
     /**
      * Place a being at the given location.
-     * If there is already a being at the location it will
-     * be lost.
+     * If there is already another being at the location it will
+     * be lost: it is taken out of the field and, if still alive,
+     * killed, so that nothing else keeps it going.
      * @param aBeing The being to be placed.
      * @param location Where to place the being.
      */
     public void placeBeing(Being aBeing, Location location)
     {
-        //assert location != null;
-        Object other = field.get(location);
+        if(location == null) {
+            // The being has died this step and occupies no cell.
+            return;
+        }
+        int cell = indexOf(location);
+        if(collectingIntents) {
+            IntentBuffer.current().add(aBeing, cell, Randomizer.getRandom().nextLong());
+            return;
+        }
+        Being other = cells[cell];
         if(other != null) {
-            beings.remove(other);
+            removeFromBeings(other, cell);
+            if(other != aBeing && other.isAlive()) {
+                // Displaced. It has already left the field, so its
+                // death is not counted again.
+                other.setDead();
+            }
+        }
+        cells[cell] = aBeing;
+        if(isKept(aBeing)) {
+            aBeing.cell = cell;
+            markPlantChanged(cell);
+            if(aBeing.isAlive()) {
+                if(!parallelUpdate) {
+                    countBeing(aBeing, 1);
+                }
+                markCell(aBeing, cell, true);
+            }
+            return;
+        }
+        if(aBeing.field != this) {
+            aBeing.previousCell = aBeing.field == null ? -1 : aBeing.cell;
+        }
+        aBeing.cell = cell;
+        aBeing.field = this;
+        if(!parallelUpdate) {
+            addToBeings(aBeing, cell);
+        }
+        if(aBeing.isAlive()) {
+            if(!parallelUpdate) {
+                countBeing(aBeing, 1);
+            }
+            markCell(aBeing, cell, true);
+        }
+    }
+
+    /**
+     * Remove a being from the being list in constant time by moving
+     * the last being in the list into its slot.
+     * @param aBeing A being currently held in this field.
+     * @param cell The cell the being occupies.
+     */
+    private void removeFromBeings(Being aBeing, int cell)
+    {
+        if(isKept(aBeing)) {
+            // A kept plant is counted for as long as it is in a cell,
+            // even if it died in another state of the field.
+            if(!parallelUpdate) {
+                countBeing(aBeing, -1);
+            }
+            markCell(aBeing, cell, false);
+            markPlantChanged(cell);
+            return;
+        }
+        if(!parallelUpdate) {
+            int slot = aBeing.slot;
+            Being last = beings.remove(beings.size() - 1);
+            if(last != aBeing) {
+                beings.set(slot, last);
+                beingCells[slot] = beingCells[beings.size()];
+                last.slot = slot;
+            }
+        }
+        aBeing.field = null;
+        if(aBeing.isAlive()) {
+            if(!parallelUpdate) {
+                countBeing(aBeing, -1);
+            }
+            markCell(aBeing, cell, false);
         }
-        field.put(location, aBeing);
+    }
+
+    /**
+     * Add a being to the end of the being list.
+     * @param aBeing The being.
+     * @param cell The cell it occupies.
+     */
+    private void addToBeings(Being aBeing, int cell)
+    {
+        int slot = beings.size();
+        if(slot == beingCells.length) {
+            beingCells = Arrays.copyOf(beingCells, slot * 2);
+        }
+        aBeing.slot = slot;
+        beingCells[slot] = cell;
         beings.add(aBeing);
     }
-    
+
+    /**
+     * Update the population counts for a being that has arrived in
+     * or left the field.
+     * @param aBeing The live being.
+     * @param change 1 if it has arrived, -1 if it has left.
+     */
+    private void countBeing(Being aBeing, int change)
+    {
+        int species = aBeing.getSpecies().ordinal();
+        population[species] += change;
+        if(aBeing instanceof Animal animal && animal.isInfected()) {
+            infections[species] += change;
+        }
+    }
+
+    /**
+     * Set or clear the bits of a live being's cell in the bitmaps.
+     * @param aBeing The live being.
+     * @param cell The cell it occupies.
+     * @param present Whether the being has arrived in the cell or left it.
+     */
+    private void markCell(Being aBeing, int cell, boolean present)
+    {
+        int row = cell / width;
+        int col = cell - row * width;
+        int word = row * wordsPerRow + (col >>> 6);
+        long bit = 1L << col;
+        boolean isAnimal = aBeing instanceof Animal;
+        long[] kindBits = isAnimal ? animals : plants;
+        long[] maleBits = null;
+        if(isAnimal && ((Animal) aBeing).getGender() == Animal.Gender.MALE) {
+            maleBits = males[aBeing.getSpecies().ordinal()];
+        }
+        if(present) {
+            occupied[word] |= bit;
+            kindBits[word] |= bit;
+            if(maleBits != null) {
+                maleBits[word] |= bit;
+            }
+        }
+        else {
+            occupied[word] &= ~bit;
+            kindBits[word] &= ~bit;
+            if(maleBits != null) {
+                maleBits[word] &= ~bit;
+            }
+        }
+    }
+
+    /**
+     * Record that a being in this field has died.
+     * Its body stays in its cell until it is replaced.
+     * @param aBeing The being, which must still be alive.
+     */
+    void beingDied(Being aBeing)
+    {
+        if(!parallelUpdate) {
+            countBeing(aBeing, -1);
+        }
+        int cell = indexOf(aBeing.getLocation());
+        if(cells[cell] == aBeing) {
+            markCell(aBeing, cell, false);
+        }
+    }
+
+    /**
+     * Take a kept plant that has died out of the field. Its cell is
+     * left empty rather than holding its body.
+     * @param plant The plant, which must still be alive.
+     */
+    void plantDied(Plant plant)
+    {
+        if(keepingPlants && cells[plant.cell] == plant) {
+            cells[plant.cell] = null;
+            removeFromBeings(plant, plant.cell);
+        }
+    }
+
+    /**
+     * Keep plants in this field from one state to the next, instead of
+     * having them placed again every step. A plant then only changes
+     * the field when it arrives or leaves, and the field marks its
+     * cell, so that another state can catch up by looking at the
+     * marked cells alone. This must be called while the field is empty.
+     */
+    void keepPlants()
+    {
+        keepingPlants = true;
+    }
+
+    /**
+     * Empty the field of animals, leaving its plants in place.
+     */
+    public void clearAnimals()
+    {
+        parallelUpdate = false;
+        collectingIntents = false;
+        for(int slot = 0; slot < beings.size(); slot++) {
+            Being aBeing = beings.get(slot);
+            if(cells[beingCells[slot]] == aBeing) {
+                cells[beingCells[slot]] = null;
+            }
+            if(aBeing.field == this) {
+                aBeing.field = null;
+            }
+        }
+        beings.clear();
+        for(Species species : SPECIES) {
+            if(species.isAnimal()) {
+                population[species.ordinal()] = 0;
+            }
+        }
+        Arrays.fill(infections, 0);
+        System.arraycopy(plants, 0, occupied, 0, occupied.length);
+        Arrays.fill(animals, 0);
+        for(long[] maleBits : males) {
+            if(maleBits != null) {
+                Arrays.fill(maleBits, 0);
+            }
+        }
+    }
+
+    /**
+     * Bring the plants of this field up to date with another state of
+     * the field that keeps its plants, by copying the plant of every
+     * cell marked in the other state. The marks are then cleared. The
+     * field must hold no animals, and must have been caught up with or
+     * emptied before the other state's marks were last cleared.
+     * @param other The state to catch up with.
+     */
+    public void catchUpPlants(Field other)
+    {
+        for(int cell = other.nextPlantChange(0); cell >= 0; cell = other.nextPlantChange(cell + 1)) {
+            Being mine = cells[cell];
+            Being theirs = other.cells[cell];
+            if(mine != theirs) {
+                if(mine != null) {
+                    cells[cell] = null;
+                    countBeing(mine, -1);
+                    markCell(mine, cell, false);
+                }
+                if(theirs instanceof Plant && theirs.isAlive()) {
+                    cells[cell] = theirs;
+                    countBeing(theirs, 1);
+                    markCell(theirs, cell, true);
+                }
+            }
+        }
+        Arrays.fill(other.plantChanges, 0);
+    }
+
+    /**
+     * Find the next cell marked as having had a plant arrive or leave.
+     * @param fromCell The cell to start looking at.
+     * @return The first marked cell at or after fromCell, or -1 if
+     *         there is none.
+     */
+    int nextPlantChange(int fromCell)
+    {
+        if(fromCell >= cells.length) {
+            return -1;
+        }
+        int row = fromCell / width;
+        int col = fromCell - row * width;
+        int word = row * wordsPerRow + (col >>> 6);
+        long bits = plantChanges[word] & (-1L << col);
+        while(bits == 0) {
+            if(++word == plantChanges.length) {
+                return -1;
+            }
+            bits = plantChanges[word];
+        }
+        return (word / wordsPerRow) * width + (word % wordsPerRow) * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Mark a cell as having had a plant arrive or leave.
+     * @param cell The cell.
+     */
+    private void markPlantChanged(int cell)
+    {
+        int row = cell / width;
+        int col = cell - row * width;
+        plantChanges[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+    }
+
+    /**
+     * @return Whether a being is a plant kept in this field.
+     */
+    private boolean isKept(Being aBeing)
+    {
+        return keepingPlants && aBeing instanceof Plant;
+    }
+
+    /**
+     * Record that a live animal in this field has become infected.
+     * @param animal The animal.
+     */
+    void animalInfected(Animal animal)
+    {
+        if(!parallelUpdate) {
+            infections[animal.getSpecies().ordinal()]++;
+        }
+    }
+
+    /**
+     * Allow beings to be placed, and to die or be infected, from several
+     * threads at once. The callers must make sure that no two threads
+     * touch the same cell, or cells whose bits share a bitmap word.
+     * Until endParallelUpdate is called, the being list and population
+     * counts are out of date.
+     */
+    public void beginParallelUpdate()
+    {
+        parallelUpdate = true;
+    }
+
+    /**
+     * Start collecting placements in this empty field as intents, in
+     * the buffer bound to each placing thread. Until endIntents is
+     * called, the field's free cells and males are those of the given
+     * field, so that every being sees the same occupancy whatever the
+     * order in which the beings act. This also begins a parallel update.
+     * @param basis The field whose occupancy the intents are based on.
+     */
+    public void beginIntents(Field basis)
+    {
+        beginParallelUpdate();
+        collectingIntents = true;
+        System.arraycopy(basis.occupied, 0, occupied, 0, occupied.length);
+        for(int i = 0; i < males.length; i++) {
+            if(males[i] != null) {
+                System.arraycopy(basis.males[i], 0, males[i], 0, males[i].length);
+            }
+        }
+    }
+
+    /**
+     * Stop collecting intents, leaving the field empty so that the
+     * winning intents can be placed. The parallel update continues
+     * until endParallelUpdate is called.
+     */
+    public void endIntents()
+    {
+        collectingIntents = false;
+        System.arraycopy(plants, 0, occupied, 0, occupied.length);
+        Arrays.fill(animals, 0);
+        for(long[] bits : males) {
+            if(bits != null) {
+                Arrays.fill(bits, 0);
+            }
+        }
+    }
+
+    /**
+     * Finish placing beings from several threads, rebuilding the being
+     * list, in row-major order, and the population counts from the cells.
+     */
+    public void endParallelUpdate()
+    {
+        parallelUpdate = false;
+        beings.clear();
+        Arrays.fill(population, 0);
+        Arrays.fill(infections, 0);
+        for(int cell = 0; cell < cells.length; cell++) {
+            Being aBeing = cells[cell];
+            if(aBeing != null) {
+                if(isKept(aBeing)) {
+                    countBeing(aBeing, 1);
+                    continue;
+                }
+                addToBeings(aBeing, cell);
+                if(aBeing.isAlive()) {
+                    countBeing(aBeing, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the number of live beings of a species in the field.
+     * @param species The species to count.
+     * @return The number of live beings of that species.
+     */
+    public int getPopulation(Species species)
+    {
+        return population[species.ordinal()];
+    }
+
+    /**
+     * Return the number of live infected animals of a species in the field.
+     * @param species The species to count.
+     * @return The number of infected animals of that species.
+     */
+    public int getInfections(Species species)
+    {
+        return infections[species.ordinal()];
+    }
+
     /**
      * Return the being at the given location, if any.
      * @param location Where in the field.
@@ -55,7 +537,225 @@ public class Field
      */
     public Being getBeingAt(Location location)
     {
-        return field.get(location);
+        return cells[indexOf(location)];
+    }
+
+    /**
+     * Return the being in the given cell, if any.
+     * @param cell The index of the cell, as held by a Neighbourhood.
+     * @return The being in the cell, or null if there is none.
+     */
+    public Being getBeingAt(int cell)
+    {
+        return cells[cell];
+    }
+
+    /**
+     * Return the location of a cell.
+     * @param cell The index of the cell, as held by a Neighbourhood.
+     * @return The location of the cell.
+     */
+    public Location getLocation(int cell)
+    {
+        return locations[cell];
+    }
+
+    /**
+     * Return the location at the given row and column.
+     * The same Location object is returned for every call.
+     * @param row The row of the location.
+     * @param col The column of the location.
+     * @return The location.
+     */
+    public Location getLocation(int row, int col)
+    {
+        return locations[row * width + col];
+    }
+
+    /**
+     * Fill a cursor with the cells adjacent to the given location,
+     * in a random order. The location itself is not included and
+     * all cells lie within the grid.
+     * @param location The location from which to generate adjacencies.
+     * @param cursor The cursor to fill; its previous contents are lost.
+     * @return The cursor, for convenience.
+     */
+    public Neighbourhood adjacent(Location location, Neighbourhood cursor)
+    {
+        return fillAdjacent(location, cursor, false);
+    }
+
+    /**
+     * Fill a cursor with the free cells adjacent to the given location,
+     * in a random order. A cell holding a dead being counts as free.
+     * @param location Get cells adjacent to this.
+     * @param cursor The cursor to fill; its previous contents are lost.
+     * @return The cursor, for convenience.
+     */
+    public Neighbourhood freeAdjacent(Location location, Neighbourhood cursor)
+    {
+        return fillAdjacent(location, cursor, true);
+    }
+
+    /**
+     * Fill a cursor with the cells adjacent to a location, visiting
+     * the neighbours in one of the precomputed random orders.
+     * @param location The location from which to generate adjacencies.
+     * @param cursor The cursor to fill.
+     * @param freeOnly Whether to leave out cells holding a live being.
+     * @return The cursor.
+     */
+    private Neighbourhood fillAdjacent(Location location, Neighbourhood cursor, boolean freeOnly)
+    {
+        cursor.clear();
+        if(location != null) {
+            int row = location.row();
+            int col = location.col();
+            int taken = freeOnly ? neighbourhoodMask(occupied, row, col) : 0;
+            int[] order = NEIGHBOUR_ORDERS[Randomizer.getRandom().nextInt(NEIGHBOUR_ORDERS.length)];
+            for(int neighbour : order) {
+                int nextRow = row + ROW_OFFSETS[neighbour];
+                int nextCol = col + COL_OFFSETS[neighbour];
+                if(nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width
+                   && (taken & NEIGHBOUR_BITS[neighbour]) == 0) {
+                    cursor.add(nextRow * width + nextCol);
+                }
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * Return whether a live male of the given species is in a cell
+     * adjacent to the given location.
+     * @param location The location to look around.
+     * @param species An animal species.
+     * @return true if a live male of the species is adjacent.
+     */
+    public boolean hasAdjacentMale(Location location, Species species)
+    {
+        long[] maleBits = males[species.ordinal()];
+        return maleBits != null
+               && (neighbourhoodMask(maleBits, location.row(), location.col()) & ~CENTRE_BIT) != 0;
+    }
+
+    /**
+     * Return whether any live being is in a block of cells.
+     * @param firstRow The first row of the block.
+     * @param lastRow The row after the last row of the block.
+     * @param firstCol The first column of the block.
+     * @param lastCol The column after the last column of the block.
+     * @return true if a cell in the block holds a live being.
+     */
+    public boolean hasBeingsIn(int firstRow, int lastRow, int firstCol, int lastCol)
+    {
+        return anyBitIn(occupied, firstRow, lastRow, firstCol, lastCol);
+    }
+
+    /**
+     * Return whether any live animal is in a block of cells.
+     * @param firstRow The first row of the block.
+     * @param lastRow The row after the last row of the block.
+     * @param firstCol The first column of the block.
+     * @param lastCol The column after the last column of the block.
+     * @return true if a cell in the block holds a live animal.
+     */
+    public boolean hasAnimalsIn(int firstRow, int lastRow, int firstCol, int lastCol)
+    {
+        return anyBitIn(animals, firstRow, lastRow, firstCol, lastCol);
+    }
+
+    /**
+     * Return whether any bit of a block of cells is set in a bitmap.
+     */
+    private boolean anyBitIn(long[] bits, int firstRow, int lastRow, int firstCol, int lastCol)
+    {
+        int firstWord = firstCol >>> 6;
+        int lastWord = (lastCol - 1) >>> 6;
+        long firstMask = -1L << firstCol;
+        long lastMask = -1L >>> (63 - ((lastCol - 1) & 63));
+        for(int row = firstRow; row < lastRow; row++) {
+            int rowStart = row * wordsPerRow;
+            for(int word = firstWord; word <= lastWord; word++) {
+                long mask = (word == firstWord ? firstMask : -1L) & (word == lastWord ? lastMask : -1L);
+                if((bits[rowStart + word] & mask) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return a random free location, if there is one.
+     * A location holding a dead being counts as free.
+     * @param random The random generator to choose with.
+     * @return A free location, or null if every cell holds a live being.
+     */
+    public Location randomFreeLocation(Random random)
+    {
+        // Try a few random cells first, which nearly always succeeds
+        // unless the field is almost full.
+        for(int attempt = 0; attempt < 8; attempt++) {
+            int cell = random.nextInt(cells.length);
+            int row = cell / width;
+            int col = cell - row * width;
+            if((occupied[row * wordsPerRow + (col >>> 6)] & (1L << col)) == 0) {
+                return locations[cell];
+            }
+        }
+        // Otherwise scan the bitmap for a free bit, from a random word.
+        int start = random.nextInt(occupied.length);
+        for(int i = 0; i < occupied.length; i++) {
+            int word = (start + i) % occupied.length;
+            int firstCol = (word % wordsPerRow) * 64;
+            long free = ~occupied[word];
+            if(width - firstCol < 64) {
+                free &= (1L << (width - firstCol)) - 1;
+            }
+            if(free != 0) {
+                int row = word / wordsPerRow;
+                return locations[row * width + firstCol + Long.numberOfTrailingZeros(free)];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gather the bits of a bitmap in the 3x3 neighbourhood of a cell,
+     * as a mask laid out as described for NEIGHBOUR_BITS. Cells
+     * outside the field read as clear.
+     * @param bits The bitmap to read.
+     * @param row The row of the centre cell.
+     * @param col The column of the centre cell.
+     * @return The neighbourhood mask.
+     */
+    private int neighbourhoodMask(long[] bits, int row, int col)
+    {
+        int mask = 0;
+        for(int roffset = -1; roffset <= 1; roffset++) {
+            int nextRow = row + roffset;
+            if(nextRow >= 0 && nextRow < depth) {
+                int base = nextRow * wordsPerRow;
+                int threeBits;
+                if(col > 0 && (col - 1) >>> 6 == (col + 1) >>> 6) {
+                    // All three columns lie in one word.
+                    threeBits = (int) (bits[base + ((col - 1) >>> 6)] >>> (col - 1)) & 7;
+                }
+                else {
+                    threeBits = 0;
+                    for(int coffset = -1; coffset <= 1; coffset++) {
+                        int nextCol = col + coffset;
+                        if(nextCol >= 0 && nextCol < width
+                           && (bits[base + (nextCol >>> 6)] & (1L << nextCol)) != 0) {
+                            threeBits |= 1 << (coffset + 1);
+                        }
+                    }
+                }
+                mask |= threeBits << ((roffset + 1) * 3);
+            }
+        }
+        return mask;
     }
 
     /**
@@ -68,7 +768,7 @@ public class Field
         List<Location> free = new LinkedList<>();
         List<Location> adjacent = getAdjacentLocations(location);
         for(Location next : adjacent) {
-            Being aBeing = field.get(next);
+            Being aBeing = cells[indexOf(next)];
             if(aBeing == null) {
                 free.add(next);
             }
@@ -100,7 +800,7 @@ public class Field
                         int nextCol = col + coffset;
                         // Exclude invalid locations and the original location.
                         if(nextCol >= 0 && nextCol < width && (roffset != 0 || coffset != 0)) {
-                            locations.add(new Location(nextRow, nextCol));
+                            locations.add(this.locations[nextRow * width + nextCol]);
                         }
                     }
                 }
@@ -108,7 +808,7 @@ public class Field
             
             // Shuffle the list. Several other methods rely on the list
             // being in a random order.
-            Collections.shuffle(locations, rand);
+            Collections.shuffle(locations, Randomizer.getRandom());
         }
         return locations;
     }
@@ -118,119 +818,108 @@ public class Field
      */
     public void fieldStats()
     {
-        int numCrocodiles = 0, numBirds = 0 , numSnakes = 0, numFish = 0, 
-        numLizard = 0, numFruit = 0, numAlgae = 0, numLeaf = 0;
-        for(Being aBeing : field.values()) {
-            if(aBeing instanceof Crocodile crocodile) {
-                if(crocodile.isAlive()) {
-                    numCrocodiles++;
-                }
-            }
-            else if(aBeing instanceof Bird bird) {
-                if(bird.isAlive()) {
-                    numBirds++;
-                }
-            }
-            else if(aBeing instanceof Snake snake) {
-                if(snake.isAlive()) {
-                    numSnakes++;
-                }
-            }
-            else if(aBeing instanceof Fish fish) {
-                 if(fish.isAlive()) {
-                    numFish++;
-                }
-            }
-            else if(aBeing instanceof Lizard lizard) {
-                 if(lizard.isAlive()) {
-                    numLizard++;
-                }
-            }
-            else if(aBeing instanceof Fruit fruit) {
-                 if(fruit.isAlive()) {
-                    numFruit++;
-                }
-            }
-            else if(aBeing instanceof Algae algae) {
-                 if(algae.isAlive()) {
-                    numAlgae++;
-                }
-            }
-            else if(aBeing instanceof Leaf leaf) {
-                 if(leaf.isAlive()) {
-                    numLeaf++;
-                }
-            }
-        }
-        System.out.println("Birds: " + numBirds +
-                           " crocodiles: " + numCrocodiles +
-                           " snakes: " + numSnakes +
-                           " fish: " + numFish +
-                           " lizard: " + numLizard +
-                           " fruit: " + numFruit +
-                           " algae: " + numAlgae +
-                           " leaf: " + numLeaf) ;
+        System.out.println("Birds: " + getPopulation(Species.BIRD) +
+                           " crocodiles: " + getPopulation(Species.CROCODILE) +
+                           " snakes: " + getPopulation(Species.SNAKE) +
+                           " fish: " + getPopulation(Species.FISH) +
+                           " lizard: " + getPopulation(Species.LIZARD) +
+                           " fruit: " + getPopulation(Species.FRUIT) +
+                           " algae: " + getPopulation(Species.ALGAE) +
+                           " leaf: " + getPopulation(Species.LEAF)) ;
     }
 
     /**
-     * Empty the field.
+     * Empty the field, plants included. This also ends any parallel update.
      */
     public void clear()
     {
-        field.clear();
+        parallelUpdate = false;
+        collectingIntents = false;
+        Arrays.fill(cells, null);
+        for(Being aBeing : beings) {
+            if(aBeing.field == this) {
+                aBeing.field = null;
+            }
+        }
+        beings.clear();
+        Arrays.fill(population, 0);
+        Arrays.fill(infections, 0);
+        Arrays.fill(occupied, 0);
+        Arrays.fill(animals, 0);
+        Arrays.fill(plants, 0);
+        Arrays.fill(plantChanges, 0);
+        for(long[] maleBits : males) {
+            if(maleBits != null) {
+                Arrays.fill(maleBits, 0);
+            }
+        }
     }
 
     /**
-     * Return whether there is at least one bird and one crocodile in the field.
-     * @return true if there is at least one bird and one crocodile in the field.
+     * Return whether there is at least one of each animal species in the field.
+     * @return true if every animal species is still alive in the field.
      */
     public boolean isViable()
     {
-        boolean birdFound = false;
-        boolean crocodileFound = false;
-        boolean snakeFound = false;
-        boolean fishFound = false;
-        boolean lizardFound = false;
-        Iterator<Being> it = beings.iterator();
-        while(it.hasNext() && ! (birdFound && crocodileFound && snakeFound && fishFound && lizardFound)) {
-            Being aBeing = it.next();
-            if(aBeing instanceof Bird bird) {
-                if(bird.isAlive()) {
-                    birdFound = true;
-                }
-            }
-            else if(aBeing instanceof Crocodile crocodile) {
-                if(crocodile.isAlive()) {
-                    crocodileFound = true;
-                }
-            }
-            else if(aBeing instanceof Snake snake) {
-                if(snake.isAlive()) {
-                    snakeFound = true;
-                }
-            }
-            else if(aBeing instanceof Fish fish) {
-                if(fish.isAlive()) {
-                    fishFound = true;
-                }
-            }
-            else if(aBeing instanceof Lizard lizard) {
-                if(lizard.isAlive()) {
-                    lizardFound = true;
-                }
+        for(Species species : SPECIES) {
+            if(species.isAnimal() && population[species.ordinal()] == 0) {
+                return false;
             }
         }
-        return birdFound && crocodileFound && snakeFound && fishFound && lizardFound;
+        return true;
     }
     
     /**
      * Get the list of beings.
+     * The order is not the order of placement, as replacing a being
+     * moves the last being in the list into its place. Plants kept in
+     * the field from state to state are not in the list.
      */
     public List<Being> getBeings()
     {
         return beings;
     }
 
+    /**
+     * Compute the neighbourhood mask bit of each of the eight neighbours.
+     * @return The bits, indexed like ROW_OFFSETS and COL_OFFSETS.
+     */
+    private static int[] neighbourBits()
+    {
+        int[] bits = new int[ROW_OFFSETS.length];
+        for(int neighbour = 0; neighbour < bits.length; neighbour++) {
+            bits[neighbour] = 1 << ((ROW_OFFSETS[neighbour] + 1) * 3 + COL_OFFSETS[neighbour] + 1);
+        }
+        return bits;
+    }
+
+    /**
+     * Generate random orders in which to visit the eight neighbours.
+     * @param count The number of orders to generate.
+     * @return The orders, each a shuffled permutation of 0 to 7.
+     */
+    private static int[][] shuffledOrders(int count)
+    {
+        Random rand = new Random(NEIGHBOUR_ORDER_SEED);
+        int[][] orders = new int[count][];
+        List<Integer> order = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5, 6, 7));
+        for(int i = 0; i < count; i++) {
+            Collections.shuffle(order, rand);
+            orders[i] = order.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return orders;
+    }
+
+    /**
+     * Return the index of a location in the row-major cell array.
+     * @param location A location within the field.
+     * @return The cell index of the location.
+     */
+    private int indexOf(Location location)
+    {
+        return location.row() * width + location.col();
+    }
+
     /**
      * Return the depth of the field.
      * @return The depth of the field.
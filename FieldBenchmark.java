@@ -0,0 +1,202 @@
+import java.util.*;
+
+/**
+ * A simple timing harness for the field storage. It replays the field
+ * traffic of a simulation step - every occupant looks up its free
+ * neighbours in the next state and moves into one of them - against
+ * the array-backed Field and against a HashMap-backed reference that
+ * mirrors the previous implementation. It then times free-neighbour
+ * queries on fields at several levels of occupancy.
+ *
+ * Run with the grid size as optional arguments: depth width steps.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class FieldBenchmark
+{
+    // The fraction of cells occupied at the start of a run.
+    private static final double DENSITY = 0.3;
+    // Number of untimed steps to let the JIT settle.
+    private static final int WARMUP_STEPS = 20;
+    // The occupancy levels at which free-neighbour queries are timed.
+    private static final double[] OCCUPANCIES = { 0.1, 0.5, 0.9 };
+    // The number of free-neighbour queries timed at each level.
+    private static final int QUERIES = 2_000_000;
+
+    /**
+     * Run the field benchmark.
+     * @param args Optional depth, width and number of timed steps.
+     */
+    public static void main(String[] args)
+    {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        double mapTime = runMap(depth, width, steps);
+        double arrayTime = runArray(depth, width, steps);
+        System.out.printf("%dx%d grid, %d steps%n", depth, width, steps);
+        System.out.printf("HashMap field: %.2f ms/step%n", mapTime);
+        System.out.printf("Array field:   %.2f ms/step%n", arrayTime);
+        System.out.printf("Speedup:       %.2fx%n", mapTime / arrayTime);
+
+        for(double occupancy : OCCUPANCIES) {
+            runFreeQueries(depth, width, occupancy);
+        }
+    }
+
+    /**
+     * Time free-neighbour queries on a field filled to the given
+     * occupancy, through the occupancy bitmap and through the
+     * list-building getFreeAdjacentLocations.
+     */
+    private static void runFreeQueries(int depth, int width, double occupancy)
+    {
+        Random rand = new Random(3);
+        Field field = new Field(depth, width);
+        int target = (int) (occupancy * depth * width);
+        for(int placed = 0; placed < target; placed++) {
+            Location location = field.randomFreeLocation(rand);
+            field.placeBeing(new Algae(false, location, null, false), location);
+        }
+        Location[] probes = new Location[4096];
+        for(int i = 0; i < probes.length; i++) {
+            probes[i] = field.getLocation(rand.nextInt(depth), rand.nextInt(width));
+        }
+
+        Neighbourhood cursor = new Neighbourhood();
+        long found = 0;
+        long start = 0;
+        for(int i = -QUERIES; i < QUERIES; i++) {
+            if(i == 0) {
+                start = System.nanoTime();
+            }
+            found += field.freeAdjacent(probes[i & (probes.length - 1)], cursor).size();
+        }
+        double bitmapTime = (double) (System.nanoTime() - start) / QUERIES;
+
+        for(int i = -QUERIES; i < QUERIES; i++) {
+            if(i == 0) {
+                start = System.nanoTime();
+            }
+            found += field.getFreeAdjacentLocations(probes[i & (probes.length - 1)]).size();
+        }
+        double listTime = (double) (System.nanoTime() - start) / QUERIES;
+        System.out.printf("%.0f%% occupied: bitmap %.1f ns/query, list %.1f ns/query (%d)%n",
+                          occupancy * 100, bitmapTime, listTime, found);
+    }
+
+    /**
+     * Time the array-backed Field.
+     * @return The mean time per step in milliseconds.
+     */
+    private static double runArray(int depth, int width, int steps)
+    {
+        Random rand = new Random(1);
+        Field current = new Field(depth, width);
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                if(rand.nextDouble() < DENSITY) {
+                    Location location = current.getLocation(row, col);
+                    current.placeBeing(new Algae(false, location, null, false), location);
+                }
+            }
+        }
+        long start = 0;
+        for(int step = 0; step < WARMUP_STEPS + steps; step++) {
+            if(step == WARMUP_STEPS) {
+                start = System.nanoTime();
+            }
+            Field next = new Field(current);
+            for(Being aBeing : current.getBeings()) {
+                List<Location> free = next.getFreeAdjacentLocations(aBeing.getLocation());
+                Location target = free.isEmpty() ? aBeing.getLocation() : free.get(0);
+                aBeing.setLocation(target);
+                next.placeBeing(aBeing, target);
+            }
+            current = next;
+        }
+        return (System.nanoTime() - start) / 1e6 / steps;
+    }
+
+    /**
+     * Time the HashMap-backed reference field.
+     * @return The mean time per step in milliseconds.
+     */
+    private static double runMap(int depth, int width, int steps)
+    {
+        Random rand = new Random(1);
+        MapField current = new MapField(depth, width);
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                if(rand.nextDouble() < DENSITY) {
+                    Location location = new Location(row, col);
+                    current.placeBeing(new Algae(false, location, null, false), location);
+                }
+            }
+        }
+        long start = 0;
+        for(int step = 0; step < WARMUP_STEPS + steps; step++) {
+            if(step == WARMUP_STEPS) {
+                start = System.nanoTime();
+            }
+            MapField next = new MapField(depth, width);
+            for(Being aBeing : current.beings) {
+                List<Location> free = next.getFreeAdjacentLocations(aBeing.getLocation());
+                Location target = free.isEmpty() ? aBeing.getLocation() : free.get(0);
+                aBeing.setLocation(target);
+                next.placeBeing(aBeing, target);
+            }
+            current = next;
+        }
+        return (System.nanoTime() - start) / 1e6 / steps;
+    }
+
+    /**
+     * The HashMap-backed field storage, kept as a baseline.
+     */
+    private static class MapField
+    {
+        private final int depth, width;
+        private final Map<Location, Being> field = new HashMap<>();
+        private final List<Being> beings = new ArrayList<>();
+        private final Random rand = new Random(2);
+
+        MapField(int depth, int width)
+        {
+            this.depth = depth;
+            this.width = width;
+        }
+
+        void placeBeing(Being aBeing, Location location)
+        {
+            Object other = field.get(location);
+            if(other != null) {
+                beings.remove(other);
+            }
+            field.put(location, aBeing);
+            beings.add(aBeing);
+        }
+
+        List<Location> getFreeAdjacentLocations(Location location)
+        {
+            List<Location> free = new LinkedList<>();
+            for(int roffset = -1; roffset <= 1; roffset++) {
+                int nextRow = location.row() + roffset;
+                for(int coffset = -1; coffset <= 1; coffset++) {
+                    int nextCol = location.col() + coffset;
+                    if(nextRow >= 0 && nextRow < depth && nextCol >= 0 && nextCol < width
+                       && (roffset != 0 || coffset != 0)) {
+                        Location next = new Location(nextRow, nextCol);
+                        if(field.get(next) == null) {
+                            free.add(next);
+                        }
+                    }
+                }
+            }
+            Collections.shuffle(free, rand);
+            return free;
+        }
+    }
+}
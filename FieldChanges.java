@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/**
+ * What changed in the field during one step: the beings born, moved,
+ * dead or newly infected, and the dead beings removed, each with the
+ * cell it happened in. It is worked out from the animals of the two
+ * states and the cells where plants arrived or left, so its cost
+ * follows the number of animals and plant changes rather than the
+ * size of the field, and it lets an observer update what it shows
+ * instead of looking at every cell again.
+ *
+ * Every cell whose content changed is the cell or the from-cell of at
+ * least one change. To keep a copy of which live being is where, first
+ * empty the from-cell of every move and death, then fill the cell of
+ * every birth and move.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class FieldChanges
+{
+    /**
+     * The kinds of change.
+     */
+    public enum Kind
+    {
+        // A being appeared in a cell.
+        BIRTH,
+        // A being moved from one cell to another.
+        MOVE,
+        // A being died. The cell is where it was last; the from-cell is
+        // the cell it left in the old state, or -1 if it was born and
+        // died in the same step.
+        DEATH,
+        // An animal became infected.
+        INFECTION,
+        // A being that died in an earlier step was cleared from its cell.
+        REMOVAL
+    }
+
+    // The value of Being.previousCell that marks a dead being already
+    // reported, whose cell is cleared in the following step.
+    static final int REPORTED_DEAD = -2;
+    // The initial number of changes that can be held.
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Kind[] KINDS = Kind.values();
+    private static final Species[] SPECIES = Species.values();
+
+    // The changes. Change i is of kind kinds[i], to a being of species
+    // species[i] in cells[i]; for a move or death, fromCells[i] is the
+    // cell it left.
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private byte[] species = new byte[INITIAL_CAPACITY];
+    private int[] cells = new int[INITIAL_CAPACITY];
+    private int[] fromCells = new int[INITIAL_CAPACITY];
+    // The number of changes held.
+    private int size;
+
+    /**
+     * Work out what changed between two states of the field.
+     * @param before The state at the start of the step.
+     * @param after The state at the end of the step.
+     */
+    void record(Field before, Field after)
+    {
+        size = 0;
+        for(Being aBeing : after.getBeings()) {
+            int cell = aBeing.cell;
+            if(!aBeing.isAlive()) {
+                // Placed and then killed: its body lies in the cell.
+                add(Kind.DEATH, aBeing, cell, aBeing.previousCell);
+                aBeing.previousCell = REPORTED_DEAD;
+            }
+            else {
+                if(aBeing.previousCell == -1) {
+                    add(Kind.BIRTH, aBeing, cell, -1);
+                }
+                else if(aBeing.previousCell != cell) {
+                    add(Kind.MOVE, aBeing, cell, aBeing.previousCell);
+                }
+                if(aBeing instanceof Animal animal && !animal.infectionReported && animal.isInfected()) {
+                    add(Kind.INFECTION, aBeing, cell, -1);
+                    animal.infectionReported = true;
+                }
+            }
+        }
+        for(Being aBeing : before.getBeings()) {
+            if(aBeing.field != after) {
+                // The being is not in the new state. Its cell in the old
+                // state is its last cell, unless it was placed in the new
+                // state and then replaced.
+                boolean inCell = before.getBeingAt(aBeing.cell) == aBeing;
+                if(aBeing.previousCell == REPORTED_DEAD) {
+                    // A body is only cleared from a cell it still lies in;
+                    // a cell taken since was reported by the being that
+                    // took it.
+                    if(inCell) {
+                        add(Kind.REMOVAL, aBeing, aBeing.cell, -1);
+                    }
+                }
+                else {
+                    int cell = inCell || aBeing.previousCell < 0 ? aBeing.cell : aBeing.previousCell;
+                    add(Kind.DEATH, aBeing, cell, cell);
+                }
+            }
+        }
+        // Kept plants are in neither being list. A plant that leaves
+        // takes its body with it, so its death is its last change.
+        for(int cell = after.nextPlantChange(0); cell >= 0; cell = after.nextPlantChange(cell + 1)) {
+            Being was = before.getBeingAt(cell);
+            Being now = after.getBeingAt(cell);
+            if(was != now) {
+                if(was instanceof Plant) {
+                    add(Kind.DEATH, was, cell, cell);
+                }
+                if(now instanceof Plant) {
+                    add(Kind.BIRTH, now, cell, -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of changes.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param index The index of a change, from 0 to size() - 1.
+     * @return The kind of the change.
+     */
+    public Kind getKind(int index)
+    {
+        return KINDS[kinds[index]];
+    }
+
+    /**
+     * @param index The index of a change, from 0 to size() - 1.
+     * @return The species of the being that changed.
+     */
+    public Species getSpecies(int index)
+    {
+        return SPECIES[species[index]];
+    }
+
+    /**
+     * @param index The index of a change, from 0 to size() - 1.
+     * @return The cell the change happened in. For a move, this is the
+     *         cell moved to.
+     */
+    public int getCell(int index)
+    {
+        return cells[index];
+    }
+
+    /**
+     * @param index The index of a change, from 0 to size() - 1.
+     * @return For a move or a death, the cell the being left in the old
+     *         state, or -1 if it was not in the old state; otherwise -1.
+     */
+    public int getFromCell(int index)
+    {
+        return fromCells[index];
+    }
+
+    /**
+     * Count the changes of one kind to one species.
+     * @param kind The kind of change.
+     * @param aSpecies The species.
+     * @return The number of such changes.
+     */
+    public int count(Kind kind, Species aSpecies)
+    {
+        int count = 0;
+        for(int i = 0; i < size; i++) {
+            if(kinds[i] == kind.ordinal() && species[i] == aSpecies.ordinal()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Add a change, making room for it if needed.
+     */
+    private void add(Kind kind, Being aBeing, int cell, int fromCell)
+    {
+        if(size == cells.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            species = Arrays.copyOf(species, capacity);
+            cells = Arrays.copyOf(cells, capacity);
+            fromCells = Arrays.copyOf(fromCells, capacity);
+        }
+        kinds[size] = (byte) kind.ordinal();
+        species[size] = (byte) aBeing.getSpecies().ordinal();
+        cells[size] = cell;
+        fromCells[size] = fromCell;
+        size++;
+    }
+}
@@ -0,0 +1,262 @@
+import java.util.Arrays;
+
+/**
+ * A pyramid of ever coarser pictures of a field, for drawing it at any
+ * zoom. Level 0 holds a code for the content of every cell: 0 for an
+ * empty cell, or the species' ordinal plus one. Each texel of the next
+ * level holds the most common code among the 2x2 texels below it, so
+ * a texel of level k shows the dominant content of a block of 2^k by
+ * 2^k cells. The levels are kept up to date from each step's changes:
+ * only the texels above a changed cell are worked out again.
+ *
+ * The simulation thread writes the pyramid while the event thread
+ * copies the visible part of one level, so every method that touches
+ * the levels is synchronized.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class FieldMipmap
+{
+    // The codes of each level, in row-major order, and their sizes.
+    private final byte[][] levels;
+    private final int[] widths;
+    private final int[] heights;
+    // For each level above 0, the texels to be worked out again, and
+    // a bit per texel marking those already listed.
+    private final int[][] dirty;
+    private final int[] dirtyCounts;
+    private final long[][] listed;
+
+    /**
+     * Create a pyramid for a field of the given size, with every cell
+     * empty. Levels are added until one texel covers the whole field.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     */
+    public FieldMipmap(int depth, int width)
+    {
+        int count = 1;
+        for(int w = width, h = depth; w > 1 || h > 1; w = (w + 1) / 2, h = (h + 1) / 2) {
+            count++;
+        }
+        levels = new byte[count][];
+        widths = new int[count];
+        heights = new int[count];
+        dirty = new int[count][];
+        dirtyCounts = new int[count];
+        listed = new long[count][];
+        for(int level = 0, w = width, h = depth; level < count; level++, w = (w + 1) / 2, h = (h + 1) / 2) {
+            widths[level] = w;
+            heights[level] = h;
+            levels[level] = new byte[w * h];
+            dirty[level] = new int[16];
+            listed[level] = new long[(w * h + 63) >> 6];
+        }
+    }
+
+    /**
+     * Return the code of a being.
+     * @param being The being, or null for an empty cell.
+     * @return 0 for no being, or the being's species' ordinal plus one.
+     */
+    public static byte codeOf(Being being)
+    {
+        return (byte) (being == null ? 0 : being.getSpecies().ordinal() + 1);
+    }
+
+    /**
+     * Set every cell from the field and work out every level again.
+     * @param field The field, which must be the pyramid's size.
+     */
+    public synchronized void setAll(Field field)
+    {
+        byte[] cells = levels[0];
+        for(int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = codeOf(field.getBeingAt(cell));
+        }
+        for(int level = 1; level < levels.length; level++) {
+            for(int texel = 0; texel < levels[level].length; texel++) {
+                levels[level][texel] = dominant(level, texel);
+            }
+            dirtyCounts[level] = 0;
+            Arrays.fill(listed[level], 0);
+        }
+    }
+
+    /**
+     * Update the cells that changed during a step, and the texels above
+     * them.
+     * @param field The field after the step.
+     * @param changes What changed in the field during the step.
+     */
+    public synchronized void apply(Field field, FieldChanges changes)
+    {
+        for(int i = 0; i < changes.size(); i++) {
+            setCell(field, changes.getCell(i));
+            if(changes.getFromCell(i) >= 0) {
+                setCell(field, changes.getFromCell(i));
+            }
+        }
+        for(int level = 1; level < levels.length; level++) {
+            int count = dirtyCounts[level];
+            dirtyCounts[level] = 0;
+            for(int i = 0; i < count; i++) {
+                int texel = dirty[level][i];
+                listed[level][texel >> 6] &= ~(1L << texel);
+                byte code = dominant(level, texel);
+                if(code != levels[level][texel]) {
+                    levels[level][texel] = code;
+                    markAbove(level, texel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy a block of texels of one level.
+     * @param level The level.
+     * @param firstRow The first row of the block.
+     * @param firstCol The first column of the block.
+     * @param rows The number of rows in the block.
+     * @param cols The number of columns in the block.
+     * @param codes Where to put the codes, in row-major order.
+     */
+    public synchronized void copy(int level, int firstRow, int firstCol, int rows, int cols, byte[] codes)
+    {
+        int width = widths[level];
+        for(int row = 0; row < rows; row++) {
+            System.arraycopy(levels[level], (firstRow + row) * width + firstCol, codes, row * cols, cols);
+        }
+    }
+
+    /**
+     * @return The number of levels.
+     */
+    public int getLevels()
+    {
+        return levels.length;
+    }
+
+    /**
+     * @param level The level.
+     * @return The number of columns of texels in the level.
+     */
+    public int getWidth(int level)
+    {
+        return widths[level];
+    }
+
+    /**
+     * @param level The level.
+     * @return The number of rows of texels in the level.
+     */
+    public int getHeight(int level)
+    {
+        return heights[level];
+    }
+
+    /**
+     * Set one cell from the field, and list the texel above it if the
+     * cell's code changed.
+     * @param field The field.
+     * @param cell The cell's index.
+     */
+    private void setCell(Field field, int cell)
+    {
+        byte code = codeOf(field.getBeingAt(cell));
+        if(code != levels[0][cell]) {
+            levels[0][cell] = code;
+            markAbove(0, cell);
+        }
+    }
+
+    /**
+     * List the texel above a changed texel to be worked out again.
+     * @param level The level of the changed texel.
+     * @param texel The changed texel's index.
+     */
+    private void markAbove(int level, int texel)
+    {
+        if(level + 1 == levels.length) {
+            return;
+        }
+        int row = texel / widths[level];
+        int col = texel - row * widths[level];
+        int above = (row >> 1) * widths[level + 1] + (col >> 1);
+        long[] bits = listed[level + 1];
+        if((bits[above >> 6] & (1L << above)) == 0) {
+            bits[above >> 6] |= 1L << above;
+            if(dirtyCounts[level + 1] == dirty[level + 1].length) {
+                dirty[level + 1] = Arrays.copyOf(dirty[level + 1], dirty[level + 1].length * 2);
+            }
+            dirty[level + 1][dirtyCounts[level + 1]++] = above;
+        }
+    }
+
+    /**
+     * Work out the code of a texel from the 2x2 texels below it: the
+     * most common one, preferring a being to an empty cell and then a
+     * lower code when there is a tie.
+     * @param level The texel's level, above 0.
+     * @param texel The texel's index.
+     * @return The texel's code.
+     */
+    private byte dominant(int level, int texel)
+    {
+        byte[] below = levels[level - 1];
+        int width = widths[level - 1];
+        int height = heights[level - 1];
+        int row = (texel / widths[level]) * 2;
+        int col = (texel % widths[level]) * 2;
+        int first = row * width + col;
+        // The texels below, or -1 for those past the edge.
+        int a = below[first];
+        int b = col + 1 < width ? below[first + 1] : -1;
+        int c = row + 1 < height ? below[first + width] : -1;
+        int d = col + 1 < width && row + 1 < height ? below[first + width + 1] : -1;
+
+        int best = a;
+        if(b >= 0 && beats(b, best, a, b, c, d)) {
+            best = b;
+        }
+        if(c >= 0 && beats(c, best, a, b, c, d)) {
+            best = c;
+        }
+        if(d >= 0 && beats(d, best, a, b, c, d)) {
+            best = d;
+        }
+        return (byte) best;
+    }
+
+    /**
+     * @return Whether a code is more common among the four texels than
+     *         another, or as common and preferred.
+     */
+    private static boolean beats(int code, int other, int a, int b, int c, int d)
+    {
+        int count = count(code, a, b, c, d);
+        int otherCount = count(other, a, b, c, d);
+        return count > otherCount || count == otherCount && preferred(code, other);
+    }
+
+    /**
+     * @return How many of the four texels have the given code.
+     */
+    private static int count(int code, int a, int b, int c, int d)
+    {
+        return (code == a ? 1 : 0) + (code == b ? 1 : 0) + (code == c ? 1 : 0) + (code == d ? 1 : 0);
+    }
+
+    /**
+     * @return Whether one code is shown in preference to another that
+     *         is as common.
+     */
+    private static boolean preferred(int code, int other)
+    {
+        if(other == 0) {
+            return code != 0;
+        }
+        return code != 0 && code < other;
+    }
+}
@@ -34,10 +34,19 @@ public class FieldStats
      */
     public String getPopulationDetails(Field field)
     {
-        StringBuilder details = new StringBuilder();
         if(!countsValid) {
             generateCounts(field);
         }
+        return getPopulationDetails();
+    }
+
+    /**
+     * Get details of the counts last made.
+     * @return A string describing what was in the field.
+     */
+    public String getPopulationDetails()
+    {
+        StringBuilder details = new StringBuilder();
         for(Class<?> key : counters.keySet()) {
             Counter info = counters.get(key);
             details.append(info.getName())
@@ -55,10 +64,19 @@ public class FieldStats
      */
     public String getInfectionDetails(Field field)
     {
-        StringBuilder details = new StringBuilder();
         if(!countsValid) {
             generateCounts(field);
         }
+        return getInfectionDetails();
+    }
+
+    /**
+     * Get details of the infection counts last made.
+     * @return A string describing what was infected in the field.
+     */
+    public String getInfectionDetails()
+    {
+        StringBuilder details = new StringBuilder();
         for(Class<?> key : counters.keySet()) {
             Counter info = counters.get(key);
             if (Animal.class.isAssignableFrom(key)){
@@ -91,14 +109,7 @@ public class FieldStats
      */
     public void incrementCount(Class<?> beingClass)
     {
-        Counter count = counters.get(beingClass);
-        if(count == null) {
-            // We do not have a counter for this species yet.
-            // Create one.
-            count = new Counter(beingClass.getName());
-            counters.put(beingClass, count);
-        }
-        count.increment();
+        getCounter(beingClass).increment();
     }
     
     /**
@@ -106,6 +117,16 @@ public class FieldStats
      * @param beingClass The class of being to increment.
      */
     public void incrementInfectionCount(Class<?> beingClass)
+    {
+        getCounter(beingClass).incrementInfections();
+    }
+
+    /**
+     * Return the counter for one class of being, creating it if needed.
+     * @param beingClass The class of being.
+     * @return The counter for that class.
+     */
+    private Counter getCounter(Class<?> beingClass)
     {
         Counter count = counters.get(beingClass);
         if(count == null) {
@@ -114,7 +135,7 @@ public class FieldStats
             count = new Counter(beingClass.getName());
             counters.put(beingClass, count);
         }
-        count.incrementInfections();
+        return count;
     }
 
     /**
@@ -136,25 +157,42 @@ public class FieldStats
         return field.isViable();
     }
     
+    /**
+     * Set the counts from population and infection counts that were
+     * taken earlier, for instance from a snapshot of the field.
+     * @param populations The population of each species, by ordinal.
+     * @param infections The infections of each species, by ordinal.
+     */
+    public void count(int[] populations, int[] infections)
+    {
+        reset();
+        for(Species species : Species.values()) {
+            int population = populations[species.ordinal()];
+            if(population > 0 || counters.containsKey(species.getBeingClass())) {
+                Counter count = getCounter(species.getBeingClass());
+                count.increment(population);
+                count.incrementInfections(infections[species.ordinal()]);
+            }
+        }
+        countsValid = true;
+    }
+
     /**
      * Generate counts of the number of beings.
-     * These are not kept up to date as beings 
-     * are placed in the field, but only when a request
-     * is made for the information.
+     * These are read from the population counts the field
+     * keeps up to date as beings are placed, die or are infected,
+     * so the field does not need to be scanned.
      * @param field The field to generate the stats for.
      */
     private void generateCounts(Field field)
     {
         reset();
-        for(int row = 0; row < field.getDepth(); row++) {
-            for(int col = 0; col < field.getWidth(); col++) {
-                Being being = field.getBeingAt(new Location(row, col));
-                if(being != null) {
-                    incrementCount(being.getClass());
-                    if(being instanceof Animal && ((Animal) being).isInfected()) {
-                        incrementInfectionCount(being.getClass());
-                    }
-                }
+        for(Species species : Species.values()) {
+            int population = field.getPopulation(species);
+            if(population > 0 || counters.containsKey(species.getBeingClass())) {
+                Counter count = getCounter(species.getBeingClass());
+                count.increment(population);
+                count.incrementInfections(field.getInfections(species));
             }
         }
         countsValid = true;
@@ -1,5 +1,3 @@
-import java.util.List;
-import java.util.Random;
 
 /**
  * A simple model of a fruit.
@@ -10,18 +8,11 @@ import java.util.Random;
  */
 public class Fruit extends Plant
 {
-    // Characteristics shared by all fruits (class variables).
+    // The default characteristics of fruit (class variables). A
+    // simulation can override them through its SimulationParameters.
 
     // The age to which a fruit can live.
-    private static final int MAX_AGE = 50;
-
-    // A shared random number generator to control breeding.
-    private static final Random rand = Randomizer.getRandom();
-
-    // Individual characteristics (instance fields).
-
-    // The fruit's age.
-    private int age;
+    static final int MAX_AGE = 50;
 
     /**
      * Create a new fruit. A fruit may be created with age
@@ -34,33 +25,18 @@ public class Fruit extends Plant
      */
     public Fruit(boolean randomAge, Location location, Simulator simulator, boolean isEaten)
     {
-        super(location, simulator, isEaten);
-        age = 0;
-        if(randomAge) {
-            age = rand.nextInt(MAX_AGE);
-        }
+        super(location, simulator, isEaten, startingAge(randomAge, Species.FRUIT, simulator));
     }
 
-    /**
-     * This is what the fruit does most of the time - it grows and stays in place.
-     * A fruit can only grow when it is sunny and daytime.
-     * @param currentField The field occupied.
-     * @param nextFieldState The updated field.
-     */
-    public void act(Field currentField, Field nextFieldState)
-    { 
-        if(isAlive()) {
-            if (simulator.getTimeOfDay().equals("daytime") && simulator.getWeather().equals("sunny")){
-                incrementAge(nextFieldState, false);
-            }  
-            nextFieldState.placeBeing(this, getLocation());
-        }
+    @Override
+    public Species getSpecies() {
+        return Species.FRUIT;
     }
 
     @Override
     public String toString() {
         return "fruit{" +
-        "age=" + age +
+        "age=" + getAge() +
         ", alive=" + isAlive() +
         ", location=" + getLocation() +
         ", eaten=" + getIsEaten() +
@@ -68,24 +44,33 @@ public class Fruit extends Plant
     }
 
     /**
-     * Increase the age.
+     * Increase the age by one step, as happens when the fruit is eaten.
      * This could result in the fruit's death.
-     * When a fruit dies it triggers the birth of new fruit in
-     * free neighbouring cells..
      * @param nextFieldState The updated field.
      * @param isEaten If true, the fruit is assumed to have been eaten.
      */
     public void incrementAge(Field nextFieldState, boolean isEaten)
     {
-        if(++age > MAX_AGE || this.isEaten == true) {
-            List<Location> freeLocations =
-                nextFieldState.getFreeAdjacentLocations(getLocation());
-            for (int b = 0; b < freeLocations.size() && !freeLocations.isEmpty(); b++) {
-                Location loc = freeLocations.remove(0);
-                Fruit young = new Fruit(false, loc, simulator, false);
-                nextFieldState.placeBeing(young, loc);
-            }
-            setDead();
+        ageOneStep();
+        if(isExpired() || this.isEaten == true) {
+            wither(nextFieldState);
+        }
+    }
+
+    /**
+     * Let the fruit die. When a fruit dies it triggers the birth
+     * of new fruit in free neighbouring cells.
+     * @param nextFieldState The updated field.
+     */
+    @Override
+    protected void wither(Field nextFieldState)
+    {
+        Neighbourhood freeLocations = freeAdjacent(nextFieldState);
+        for (int b = 0; b < freeLocations.size() && !freeLocations.isEmpty(); b++) {
+            Location loc = nextFieldState.getLocation(freeLocations.next());
+            Fruit young = new Fruit(false, loc, simulator, false);
+            nextFieldState.placeBeing(young, loc);
         }
+        die(nextFieldState);
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+import java.util.Arrays;
+
+/**
+ * A buffer of placement intents: the cells beings have asked to be
+ * placed in, each with a random priority. While a field is collecting
+ * intents, placing a being in it adds an intent to the buffer bound to
+ * the current thread instead of filling the cell. The intents are then
+ * resolved cell by cell, and the intent with the lowest priority wins,
+ * so the outcome does not depend on the order in which beings acted.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class IntentBuffer
+{
+    // The initial number of intents the buffer can hold.
+    private static final int INITIAL_CAPACITY = 256;
+    // The buffer bound to each thread.
+    private static final ThreadLocal<IntentBuffer> bound = new ThreadLocal<>();
+
+    // The intents. Intent i asks for beings[i] to be placed in cells[i].
+    Being[] beings = new Being[INITIAL_CAPACITY];
+    int[] cells = new int[INITIAL_CAPACITY];
+    long[] priorities = new long[INITIAL_CAPACITY];
+    // The number of intents held.
+    int size;
+
+    /**
+     * Return the buffer bound to the current thread.
+     * @return The buffer.
+     * @throws IllegalStateException If no buffer is bound.
+     */
+    static IntentBuffer current()
+    {
+        IntentBuffer buffer = bound.get();
+        if(buffer == null) {
+            throw new IllegalStateException("No intent buffer is bound to this thread.");
+        }
+        return buffer;
+    }
+
+    /**
+     * Bind a buffer to the current thread, or remove the binding.
+     * @param buffer The buffer, or null to unbind.
+     * @return The buffer bound before, or null if there was none.
+     */
+    static IntentBuffer bind(IntentBuffer buffer)
+    {
+        IntentBuffer previous = bound.get();
+        if(buffer == null) {
+            bound.remove();
+        }
+        else {
+            bound.set(buffer);
+        }
+        return previous;
+    }
+
+    /**
+     * Add an intent.
+     * @param aBeing The being to be placed.
+     * @param cell The cell it is to be placed in.
+     * @param priority The priority of the intent. Lower wins.
+     */
+    void add(Being aBeing, int cell, long priority)
+    {
+        if(size == beings.length) {
+            int capacity = size * 2;
+            beings = Arrays.copyOf(beings, capacity);
+            cells = Arrays.copyOf(cells, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+        }
+        beings[size] = aBeing;
+        cells[size] = cell;
+        priorities[size] = priority;
+        size++;
+    }
+
+    /**
+     * Remove every intent.
+     */
+    void clear()
+    {
+        Arrays.fill(beings, 0, size, null);
+        size = 0;
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.List;
-import java.util.Random;
 
 /**
  * A simple model of a leaf.
@@ -10,18 +8,11 @@ import java.util.Random;
  */
 public class Leaf extends Plant
 {
-    // Characteristics shared by all leaves (class variables).
+    // The default characteristics of leaves (class variables). A
+    // simulation can override them through its SimulationParameters.
     
     // The age to which a leaf can live.
-    private static final int MAX_AGE = 30;
-
-    // A shared random number generator to control breeding.
-    private static final Random rand = Randomizer.getRandom();
-    
-    // Individual characteristics (instance fields).
-    
-    // The leaf's age.
-    private int age;
+    static final int MAX_AGE = 30;
 
     /**
      * Create a new leaf. A leaf may be created with age
@@ -33,33 +24,18 @@ public class Leaf extends Plant
      * @param isEaten If true, the leaf is assumed to have been eaten.
      */
     public Leaf(boolean randomAge, Location location, Simulator simulator, boolean isEaten)
-    {   super(location, simulator, isEaten);
-        age = 0;
-        if(randomAge) {
-            age = rand.nextInt(MAX_AGE);
-        }
+    {   super(location, simulator, isEaten, startingAge(randomAge, Species.LEAF, simulator));
     }
     
-    /**
-     * This is what the leaf does most of the time - it grows and stays in place.
-     * A leaf can only grow when it is sunny and daytime.
-     * @param currentField The field occupied.
-     * @param nextFieldState The updated field.
-     */
-    public void act(Field currentField, Field nextFieldState)
-    { 
-        if(isAlive()) {
-            if (simulator.getTimeOfDay().equals("daytime") && simulator.getWeather().equals("sunny")){
-                incrementAge(nextFieldState, false);                
-            } 
-            nextFieldState.placeBeing(this, getLocation());
-        }
+    @Override
+    public Species getSpecies() {
+        return Species.LEAF;
     }
 
     @Override
     public String toString() {
         return "leaf{" +
-                "age=" + age +
+                "age=" + getAge() +
                 ", alive=" + isAlive() +
                 ", location=" + getLocation() +
                 ", eaten=" + getIsEaten() +
@@ -67,24 +43,33 @@ public class Leaf extends Plant
     }
 
     /**
-     * Increase the age.
+     * Increase the age by one step, as happens when the leaf is eaten.
      * This could result in the leaf's death.
-     * When a leaf dies it triggers the birth of new leaves in
-     * free neighbouring cells.
      * @param nextFieldState The updated field.
-     * @param isEaten If true, the fruit is assumed to have been eaten.
+     * @param isEaten If true, the leaf is assumed to have been eaten.
      */
     public void incrementAge(Field nextFieldState, boolean isEaten)
     {
-        if(++age > MAX_AGE || this.isEaten == true) {
-            List<Location> freeLocations =
-                nextFieldState.getFreeAdjacentLocations(getLocation());
-            for (int b = 0; b < freeLocations.size() && !freeLocations.isEmpty(); b++) {
-                Location loc = freeLocations.remove(0);
-                Leaf young = new Leaf(false, loc, simulator, false);
-                nextFieldState.placeBeing(young, loc);
-            }
-            setDead();
+        ageOneStep();
+        if(isExpired() || this.isEaten == true) {
+            wither(nextFieldState);
+        }
+    }
+
+    /**
+     * Let the leaf die. When a leaf dies it triggers the birth
+     * of new leaves in free neighbouring cells.
+     * @param nextFieldState The updated field.
+     */
+    @Override
+    protected void wither(Field nextFieldState)
+    {
+        Neighbourhood freeLocations = freeAdjacent(nextFieldState);
+        for (int b = 0; b < freeLocations.size() && !freeLocations.isEmpty(); b++) {
+            Location loc = nextFieldState.getLocation(freeLocations.next());
+            Leaf young = new Leaf(false, loc, simulator, false);
+            nextFieldState.placeBeing(young, loc);
         }
+        die(nextFieldState);
     }
 }
\ No newline at end of file
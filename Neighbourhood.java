@@ -0,0 +1,70 @@
+/**
+ * A reusable cursor over the cells adjacent to a location.
+ * A field fills the cursor with the cell indices of the neighbours
+ * in a random order, and the caller then takes them one at a time.
+ * Filling a cursor does not allocate, so each user keeps one and
+ * reuses it for every query.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class Neighbourhood
+{
+    // The cell indices of the neighbours, in visiting order.
+    private final int[] cells = new int[8];
+    // The number of neighbours held.
+    private int count;
+    // The index of the next neighbour to be visited.
+    private int position;
+
+    /**
+     * Empty the cursor before it is filled again.
+     */
+    void clear()
+    {
+        count = 0;
+        position = 0;
+    }
+
+    /**
+     * Add a neighbour to the end of the cursor.
+     * @param cell The cell index of the neighbour.
+     */
+    void add(int cell)
+    {
+        cells[count++] = cell;
+    }
+
+    /**
+     * @return true if there are neighbours left to visit.
+     */
+    public boolean hasNext()
+    {
+        return position < count;
+    }
+
+    /**
+     * Take the next neighbour.
+     * @return The cell index of the next neighbour.
+     */
+    public int next()
+    {
+        return cells[position++];
+    }
+
+    /**
+     * @return true if there are no neighbours left to visit.
+     */
+    public boolean isEmpty()
+    {
+        return position >= count;
+    }
+
+    /**
+     * @return The number of neighbours left to visit.
+     */
+    public int size()
+    {
+        return count - position;
+    }
+}
@@ -0,0 +1,361 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Run one step of the simulation on several threads. The field is cut
+ * into tiles, and the tiles are coloured like a 2x2 checkerboard. The
+ * four colours are processed one after another, and the tiles of one
+ * colour are processed in parallel on a ForkJoinPool.
+ *
+ * A being reads and writes cells at most two cells away from its own:
+ * it moves or gives birth next to itself, and a plant it eats gives
+ * birth next to the plant. Tiles of the same colour are a whole tile
+ * apart, so as long as a tile is at least four cells deep and wide no
+ * two threads ever touch the same cell. Tiles are 128 columns wide so
+ * that they also never share a word of the field's bitmaps.
+ *
+ * Every being draws its random numbers from its own stream, keyed by
+ * the run's seed, the step and the being's cell. The result of a step
+ * therefore depends only on the seed and the tile layout, not on the
+ * number of threads or the order in which the tiles of one colour
+ * happen to run. The layout does matter: it decides which colour each
+ * cell has, and so which beings act before which.
+ *
+ * The engine can also resolve placements in two phases. The beings
+ * first act against the occupancy at the start of the step, and every
+ * placement becomes an intent in a buffer of the tile. The intents are
+ * then resolved in parallel, a band of rows per task: in each cell the
+ * live being whose intent has the lowest priority is placed, and a
+ * being that wins no cell dies of overcrowding. Which being ends up in
+ * a cell then does not depend on the order of the beings in a tile.
+ * Eating and infection still act on the current field immediately, so
+ * the first phase keeps the tile colouring.
+ *
+ * Plants do not act: they are kept in both states of the field and
+ * only change when eaten, when they expire or when they seed. A tile
+ * with no live animals is therefore skipped, as nothing in it would
+ * act. A tile holding only resting animals is still run, as they
+ * age, starve and pass on infection, but each of them only calls rest,
+ * which skips the search for free cells. The engine counts the tiles
+ * it skips in each step.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class ParallelStepEngine
+{
+    // The size of a tile. The width is a multiple of 64 so that tiles
+    // do not share bitmap words with the tiles they run alongside.
+    private static final int TILE_DEPTH = 16;
+    private static final int TILE_WIDTH = 128;
+
+    // The pool the tiles are processed on.
+    private final ForkJoinPool pool;
+    // Whether placements are resolved from intents in a second phase.
+    private final boolean resolveIntents;
+    // The intent buffer of each tile, in row-major tile order, and for
+    // every cell the best intent found while resolving. They are kept
+    // between steps and only replaced when the field size changes.
+    private IntentBuffer[] buffers = new IntentBuffer[0];
+    private long[] bestPriorities = new long[0];
+    private Being[] winners = new Being[0];
+    // The number of tiles in the last step, and how many of them were
+    // skipped.
+    private int lastTiles;
+    private int lastSkipped;
+
+    /**
+     * Create an engine using the given number of threads.
+     * @param threads The number of threads. Must be at least one.
+     */
+    public ParallelStepEngine(int threads)
+    {
+        this(threads, false);
+    }
+
+    /**
+     * Create an engine using the given number of threads.
+     * @param threads The number of threads. Must be at least one.
+     * @param resolveIntents If true, placements are collected as intents
+     *        and resolved in a second phase.
+     */
+    public ParallelStepEngine(int threads, boolean resolveIntents)
+    {
+        pool = new ForkJoinPool(threads);
+        this.resolveIntents = resolveIntents;
+    }
+
+    /**
+     * Let every being in the current field act, building the next field.
+     * @param currentField The current state of the field.
+     * @param nextFieldState The empty field to build the new state in.
+     * @param seed The seed of the run.
+     * @param step The number of the step.
+     * @param resting For each species, by ordinal, whether its animals
+     *        rest this step rather than act.
+     */
+    public void step(Field currentField, Field nextFieldState, long seed, int step, boolean[] resting)
+    {
+        int tileRows = (currentField.getDepth() + TILE_DEPTH - 1) / TILE_DEPTH;
+        int tileCols = (currentField.getWidth() + TILE_WIDTH - 1) / TILE_WIDTH;
+        boolean[] active = findActiveTiles(currentField, tileRows, tileCols);
+        currentField.beginParallelUpdate();
+        if(resolveIntents) {
+            prepareBuffers(tileRows * tileCols, currentField.getDepth() * currentField.getWidth());
+            nextFieldState.beginIntents(currentField);
+        }
+        else {
+            nextFieldState.beginParallelUpdate();
+        }
+        for(int colour = 0; colour < 4; colour++) {
+            List<TileTask> tiles = new ArrayList<>();
+            for(int tileRow = colour / 2; tileRow < tileRows; tileRow += 2) {
+                for(int tileCol = colour % 2; tileCol < tileCols; tileCol += 2) {
+                    int tile = tileRow * tileCols + tileCol;
+                    if(active[tile]) {
+                        IntentBuffer buffer = resolveIntents ? buffers[tile] : null;
+                        tiles.add(new TileTask(currentField, nextFieldState, tileRow, tileCol, seed, step,
+                                               resting, buffer));
+                    }
+                }
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tiles)));
+        }
+        if(resolveIntents) {
+            nextFieldState.endIntents();
+            resolve(nextFieldState, tileRows, tileCols);
+        }
+        nextFieldState.endParallelUpdate();
+    }
+
+    /**
+     * Find the tiles with live animals in them, before any being acts,
+     * and count the others.
+     * @param currentField The current state of the field.
+     * @param tileRows The number of rows of tiles.
+     * @param tileCols The number of columns of tiles.
+     * @return Whether each tile is to be acted on, in row-major tile order.
+     */
+    private boolean[] findActiveTiles(Field currentField, int tileRows, int tileCols)
+    {
+        boolean[] active = new boolean[tileRows * tileCols];
+        int skipped = 0;
+        for(int tileRow = 0; tileRow < tileRows; tileRow++) {
+            int firstRow = tileRow * TILE_DEPTH;
+            int lastRow = Math.min(firstRow + TILE_DEPTH, currentField.getDepth());
+            for(int tileCol = 0; tileCol < tileCols; tileCol++) {
+                int firstCol = tileCol * TILE_WIDTH;
+                int lastCol = Math.min(firstCol + TILE_WIDTH, currentField.getWidth());
+                boolean hasAnimals = currentField.hasAnimalsIn(firstRow, lastRow, firstCol, lastCol);
+                if(!hasAnimals) {
+                    skipped++;
+                }
+                active[tileRow * tileCols + tileCol] = hasAnimals;
+            }
+        }
+        lastTiles = active.length;
+        lastSkipped = skipped;
+        return active;
+    }
+
+    /**
+     * @return The fraction of tiles skipped in the last step.
+     */
+    public double getSkippedFraction()
+    {
+        return lastTiles == 0 ? 0 : (double) lastSkipped / lastTiles;
+    }
+
+    /**
+     * Place the winning intent of every cell, a band of tile rows per
+     * task, and let the beings that won no cell die.
+     * @param nextFieldState The field to place the winners in.
+     * @param tileRows The number of rows of tiles.
+     * @param tileCols The number of columns of tiles.
+     */
+    private void resolve(Field nextFieldState, int tileRows, int tileCols)
+    {
+        List<ResolveTask> bands = new ArrayList<>();
+        for(int tileRow = 0; tileRow < tileRows; tileRow++) {
+            bands.add(new ResolveTask(nextFieldState, tileRow, tileRows, tileCols));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(bands)));
+        for(ResolveTask band : bands) {
+            for(Being loser : band.losers) {
+                if(loser.isAlive() && loser.field != nextFieldState) {
+                    // Overcrowding.
+                    loser.setDead();
+                }
+            }
+        }
+        for(IntentBuffer buffer : buffers) {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Make sure there is a buffer for every tile and room to resolve
+     * every cell.
+     * @param tiles The number of tiles.
+     * @param cells The number of cells.
+     */
+    private void prepareBuffers(int tiles, int cells)
+    {
+        if(buffers.length != tiles) {
+            buffers = new IntentBuffer[tiles];
+            for(int i = 0; i < tiles; i++) {
+                buffers[i] = new IntentBuffer();
+            }
+        }
+        if(winners.length != cells) {
+            bestPriorities = new long[cells];
+            winners = new Being[cells];
+        }
+    }
+
+    /**
+     * @return The number of threads the engine uses.
+     */
+    public int getThreads()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stop the engine's threads. The engine cannot be used afterwards.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Let the beings in one tile act.
+     */
+    private static class TileTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Field currentField, nextFieldState;
+        private final int tileRow, tileCol;
+        private final long seed;
+        private final int step;
+        private final boolean[] resting;
+        private final IntentBuffer buffer;
+
+        TileTask(Field currentField, Field nextFieldState, int tileRow, int tileCol, long seed, int step,
+                 boolean[] resting, IntentBuffer buffer)
+        {
+            this.currentField = currentField;
+            this.nextFieldState = nextFieldState;
+            this.tileRow = tileRow;
+            this.tileCol = tileCol;
+            this.seed = seed;
+            this.step = step;
+            this.resting = resting;
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected void compute()
+        {
+            int width = currentField.getWidth();
+            int lastRow = Math.min((tileRow + 1) * TILE_DEPTH, currentField.getDepth());
+            int lastCol = Math.min((tileCol + 1) * TILE_WIDTH, width);
+            StreamRandom random = Randomizer.getStream(seed, step, 0);
+            // A worker may run this task while it waits in another, so
+            // the bindings it had are put back afterwards.
+            Random previousRandom = Randomizer.bind(random);
+            IntentBuffer previousBuffer = IntentBuffer.bind(buffer);
+            try {
+                for(int row = tileRow * TILE_DEPTH; row < lastRow; row++) {
+                    for(int col = tileCol * TILE_WIDTH; col < lastCol; col++) {
+                        int cell = row * width + col;
+                        Being aBeing = currentField.getBeingAt(cell);
+                        if(aBeing instanceof Animal animal) {
+                            random.setStream(seed, step, cell);
+                            if(resting[animal.getSpecies().ordinal()]) {
+                                animal.rest(currentField, nextFieldState);
+                            }
+                            else {
+                                animal.act(currentField, nextFieldState);
+                            }
+                        }
+                    }
+                }
+            }
+            finally {
+                Randomizer.bind(previousRandom);
+                IntentBuffer.bind(previousBuffer);
+            }
+        }
+    }
+
+    /**
+     * Resolve the intents for the cells of one row of tiles. Beings
+     * only ask for cells within two of their own, so the intents for
+     * these cells are all in the buffers of this row of tiles and the
+     * rows either side of it.
+     */
+    private class ResolveTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Field nextFieldState;
+        private final int tileRow, tileRows, tileCols;
+        // The beings that lost an intent in this band.
+        final List<Being> losers = new ArrayList<>();
+
+        ResolveTask(Field nextFieldState, int tileRow, int tileRows, int tileCols)
+        {
+            this.nextFieldState = nextFieldState;
+            this.tileRow = tileRow;
+            this.tileRows = tileRows;
+            this.tileCols = tileCols;
+        }
+
+        @Override
+        protected void compute()
+        {
+            int width = nextFieldState.getWidth();
+            int firstCell = tileRow * TILE_DEPTH * width;
+            int lastCell = Math.min((tileRow + 1) * TILE_DEPTH, nextFieldState.getDepth()) * width;
+            int firstBuffer = Math.max(tileRow - 1, 0) * tileCols;
+            int lastBuffer = Math.min(tileRow + 2, tileRows) * tileCols;
+            // Find the live being with the lowest priority in each cell.
+            for(int b = firstBuffer; b < lastBuffer; b++) {
+                IntentBuffer buffer = buffers[b];
+                for(int i = 0; i < buffer.size; i++) {
+                    int cell = buffer.cells[i];
+                    Being aBeing = buffer.beings[i];
+                    if(cell >= firstCell && cell < lastCell && aBeing.isAlive()
+                       && (winners[cell] == null || buffer.priorities[i] < bestPriorities[cell])) {
+                        winners[cell] = aBeing;
+                        bestPriorities[cell] = buffer.priorities[i];
+                    }
+                }
+            }
+            // Place the winners and note the losers.
+            for(int b = firstBuffer; b < lastBuffer; b++) {
+                IntentBuffer buffer = buffers[b];
+                for(int i = 0; i < buffer.size; i++) {
+                    int cell = buffer.cells[i];
+                    Being aBeing = buffer.beings[i];
+                    if(cell >= firstCell && cell < lastCell && aBeing.isAlive()) {
+                        if(winners[cell] == aBeing) {
+                            nextFieldState.placeBeing(aBeing, nextFieldState.getLocation(cell));
+                            winners[cell] = null;
+                        }
+                        else {
+                            losers.add(aBeing);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Run a simulation for every combination of a grid of parameter
+ * values. Each combination and replicate is a separate task on a
+ * bounded pool of threads in this JVM, so every run after the first
+ * few uses code the JIT has already compiled. Results are handed to a
+ * listener as soon as each run finishes, rather than at the end.
+ *
+ * Axes are named as in SimulationParameters.set, for example:
+ *   java ParameterSweep CROCODILE.BREEDING_PROBABILITY=0.5,0.95 BIRD.MAX_AGE=50,70
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class ParameterSweep
+{
+    // The size of the field of every run.
+    private final int depth, width;
+    // The maximum number of steps of every run.
+    private final int steps;
+    // The number of runs at once.
+    private final int threads;
+    // The values of every axis of the grid, in the order added.
+    private final Map<String, double[]> axes = new LinkedHashMap<>();
+
+    /**
+     * Create a sweep with no axes.
+     * @param depth Depth of the field of every run.
+     * @param width Width of the field of every run.
+     * @param steps The maximum number of steps of every run. A run stops
+     *        earlier if an animal species dies out.
+     * @param threads The number of runs at once.
+     */
+    public ParameterSweep(int depth, int width, int steps, int threads)
+    {
+        this.depth = depth;
+        this.width = width;
+        this.steps = steps;
+        this.threads = threads;
+    }
+
+    /**
+     * Add an axis to the grid.
+     * @param name The name of a parameter, as in SimulationParameters.set.
+     * @param values The values the parameter takes.
+     * @throws IllegalArgumentException If there is no such parameter, or
+     *         a value is out of range for it.
+     */
+    public void addAxis(String name, double... values)
+    {
+        // Fail now, rather than in the middle of the sweep.
+        SimulationParameters check = new SimulationParameters();
+        if(values.length == 0) {
+            throw new IllegalArgumentException("No values for " + name);
+        }
+        for(double value : values) {
+            check.set(name, value);
+        }
+        axes.put(name, values.clone());
+    }
+
+    /**
+     * Return every combination of the axes' values.
+     * @return The settings of each combination, by parameter name.
+     */
+    public List<Map<String, Double>> getConfigurations()
+    {
+        List<Map<String, Double>> configurations = new ArrayList<>();
+        configurations.add(new LinkedHashMap<>());
+        for(Map.Entry<String, double[]> axis : axes.entrySet()) {
+            List<Map<String, Double>> extended = new ArrayList<>();
+            for(Map<String, Double> configuration : configurations) {
+                for(double value : axis.getValue()) {
+                    Map<String, Double> settings = new LinkedHashMap<>(configuration);
+                    settings.put(axis.getKey(), value);
+                    extended.add(settings);
+                }
+            }
+            configurations = extended;
+        }
+        return configurations;
+    }
+
+    /**
+     * Run every combination and wait for the sweep to finish. Replicate
+     * r of every combination is seeded with baseSeed + r, so all
+     * combinations see the same random streams.
+     * @param replicates The number of runs of each combination.
+     * @param baseSeed The seed of the first replicate.
+     * @param listener Told about each run, on the calling thread, in
+     *        the order the runs finish.
+     * @return The number of runs.
+     */
+    public int run(int replicates, long baseSeed, Consumer<SweepResult> listener)
+    {
+        List<Map<String, Double>> configurations = getConfigurations();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<SweepResult> runs = new ExecutorCompletionService<>(pool);
+        try {
+            for(Map<String, Double> settings : configurations) {
+                for(int replicate = 0; replicate < replicates; replicate++) {
+                    long seed = baseSeed + replicate;
+                    runs.submit(() -> runConfiguration(settings, seed));
+                }
+            }
+            int total = configurations.size() * replicates;
+            for(int i = 0; i < total; i++) {
+                listener.accept(runs.take().get());
+            }
+            return total;
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The sweep was interrupted.", e);
+        }
+        catch(ExecutionException e) {
+            throw new IllegalStateException("A run failed.", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Run one combination.
+     * @param settings The parameter values.
+     * @param seed The seed of the run.
+     * @return The outcome.
+     */
+    private SweepResult runConfiguration(Map<String, Double> settings, long seed)
+    {
+        SimulationParameters parameters = new SimulationParameters();
+        for(Map.Entry<String, Double> setting : settings.entrySet()) {
+            parameters.set(setting.getKey(), setting.getValue());
+        }
+        Simulator simulator = Simulator.createHeadless(depth, width, parameters, seed);
+        simulator.simulate(steps);
+        Field field = simulator.getField();
+        int[] populations = new int[Species.values().length];
+        for(Species species : Species.values()) {
+            populations[species.ordinal()] = field.getPopulation(species);
+        }
+        return new SweepResult(settings, seed, simulator.getStep(), populations);
+    }
+
+    /**
+     * Run a sweep and print a line for each run as it finishes.
+     * @param args Axes as name=value,value,... and optional depth=,
+     *        width=, steps=, replicates= and threads= settings.
+     */
+    public static void main(String[] args)
+    {
+        int depth = 80;
+        int width = 120;
+        int steps = 200;
+        int replicates = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Map<String, double[]> axes = new LinkedHashMap<>();
+        ParameterSweep sweep;
+        try {
+            for(String arg : args) {
+                String[] setting = arg.split("=", 2);
+                if(setting.length < 2 || setting[0].isEmpty()) {
+                    throw new IllegalArgumentException("Expected name=value: " + arg);
+                }
+                switch(setting[0]) {
+                    case "depth" -> depth = Integer.parseInt(setting[1]);
+                    case "width" -> width = Integer.parseInt(setting[1]);
+                    case "steps" -> steps = Integer.parseInt(setting[1]);
+                    case "replicates" -> replicates = Integer.parseInt(setting[1]);
+                    case "threads" -> threads = Integer.parseInt(setting[1]);
+                    default -> {
+                        String[] values = setting[1].split(",");
+                        double[] axis = new double[values.length];
+                        for(int i = 0; i < values.length; i++) {
+                            axis[i] = Double.parseDouble(values[i]);
+                        }
+                        axes.put(setting[0], axis);
+                    }
+                }
+            }
+            if(depth <= 0 || width <= 0 || steps < 0 || replicates <= 0 || threads <= 0) {
+                throw new IllegalArgumentException("depth, width, replicates and threads must be positive,"
+                                                   + " and steps must not be negative.");
+            }
+            sweep = new ParameterSweep(depth, width, steps, threads);
+            axes.forEach(sweep::addAxis);
+        }
+        catch(IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java ParameterSweep [depth=N] [width=N] [steps=N] [replicates=N]"
+                               + " [threads=N] [SPECIES.CONSTANT=value,value,...]...");
+            System.exit(2);
+            return;
+        }
+        System.out.println(SweepResult.header(axes.keySet()));
+        sweep.run(replicates, 1111, System.out::println);
+    }
+}
@@ -1,28 +1,150 @@
-import java.util.List;
-
 /**
  * Common elements of plants.
  *
+ * Plants do not act on a step. They stay in the field from one state
+ * to the next, their age follows the simulator's growth clock, and
+ * the simulator schedules their expiry, so a plant is only touched
+ * when it is eaten, when it expires and when it seeds.
+ *
  * @author Jawhara Jannah and Fatimah Khan
  * @version 8.0
  */
 public abstract class Plant extends Being
 {
+    // A reusable cursor over free neighbouring cells, one per thread.
+    private static final ThreadLocal<Neighbourhood> freeCells =
+        ThreadLocal.withInitial(Neighbourhood::new);
     // If the plant has been eaten or not
     protected boolean isEaten;
+    // The growth tick at which the plant dies of old age. The age is
+    // derived from the simulator's growth clock, which only advances on
+    // steps when plants grow, so it is not counted on every step.
+    private int expiryTick;
     
     /**
-     * Constructor for objects of class Plant.
+     * Constructor for objects of class Plant. The plant's expiry is
+     * scheduled once, from the age it starts with.
      * @param location The plant's location.
      * @param simulator The simulator currently being used.
+     * @param age The age the plant starts with.
      */
-    public Plant(Location location, Simulator simulator, boolean isEaten)
+    public Plant(Location location, Simulator simulator, boolean isEaten, int age)
     {
         super(location, simulator);
         this.isEaten = false;
+        setAge(age);
+    }
+
+    /**
+     * Pick the age a new plant starts with.
+     * @param randomAge If true, a random age below the species' maximum;
+     *                  otherwise zero (a new born).
+     * @param species The plant's species.
+     * @param simulator The simulator currently being used, or null.
+     * @return The age.
+     */
+    protected static int startingAge(boolean randomAge, Species species, Simulator simulator)
+    {
+        if(!randomAge) {
+            return 0;
+        }
+        SimulationParameters parameters = simulator == null ? SimulationParameters.DEFAULTS
+                                                            : simulator.getParameters();
+        return Randomizer.getRandom().nextInt(parameters.getMaxAge(species));
     }
     
     public boolean getIsEaten() {
         return this.isEaten;
     }
+    
+    /**
+     * Return the plant's age.
+     * @return The number of growth ticks the plant has lived for.
+     */
+    public int getAge()
+    {
+        return getGrowthTicks() - expiryTick + getParameters().getMaxAge(getSpecies()) + 1;
+    }
+
+    /**
+     * Set the plant's age, which schedules when it dies of old age.
+     * @param age The new age.
+     */
+    protected void setAge(int age)
+    {
+        expiryTick = getGrowthTicks() + getParameters().getMaxAge(getSpecies()) - age + 1;
+        if(simulator != null) {
+            simulator.scheduleExpiry(this, expiryTick);
+        }
+    }
+
+    /**
+     * Plants do nothing on a step of their own; see the class comment.
+     * @param currentField The current state of the field.
+     * @param nextFieldState The new state being built.
+     */
+    @Override
+    public void act(Field currentField, Field nextFieldState)
+    {
+    }
+
+    /**
+     * Let the plant die of old age, or of being eaten when it is old
+     * enough. It seeds new plants in the free cells around it.
+     * @param nextFieldState The new state being built.
+     */
+    abstract protected void wither(Field nextFieldState);
+
+    /**
+     * Let the plant die, taking it out of the state being built.
+     * @param nextFieldState The new state being built.
+     */
+    protected void die(Field nextFieldState)
+    {
+        if(isAlive()) {
+            nextFieldState.plantDied(this);
+            setDead();
+        }
+    }
+
+    /**
+     * Make the plant one growth tick older than the clock says. Its
+     * expiry is scheduled again for the earlier tick, so that it is not
+     * left until the tick it was first scheduled for.
+     */
+    protected void ageOneStep()
+    {
+        expiryTick--;
+        if(simulator != null) {
+            simulator.scheduleExpiry(this, expiryTick);
+        }
+    }
+
+    /**
+     * Return whether the plant has outlived its maximum age.
+     * @return true if the plant should die of old age.
+     */
+    boolean isExpired()
+    {
+        return getGrowthTicks() >= expiryTick;
+    }
+
+    /**
+     * @return The simulator's growth clock, or 0 if the plant belongs to
+     *         no simulator.
+     */
+    private int getGrowthTicks()
+    {
+        return simulator == null ? 0 : simulator.getGrowthTicks();
+    }
+
+    /**
+     * Get the free cells adjacent to the plant, in random order.
+     * The cursor returned is reused by the next call.
+     * @param field The field to look in.
+     * @return The free adjacent cells.
+     */
+    protected Neighbourhood freeAdjacent(Field field) {
+        return field.freeAdjacent(this.location, freeCells.get());
+    }
 }
@@ -11,10 +11,16 @@ public class Randomizer
 {
     // The default seed for control of randomization.
     private static final int SEED = 1111;
-    // A shared Random object, if required.
-    private static final Random rand = new Random(SEED);
+    // A shared Random object, if required. It is a counter-based
+    // generator, so drawing from it does not go through a CAS, but it
+    // draws under a lock so that threads with no generator bound can
+    // still share it safely.
+    private static final Random rand = new SharedStreamRandom(SEED);
     // Determine whether a shared random generator is to be provided.
     private static final boolean useShared = true;
+    // A generator bound to the current thread, which takes the place of
+    // the shared one while a thread works on its own part of a step.
+    private static final ThreadLocal<Random> boundRandom = new ThreadLocal<>();
 
     /**
      * Constructor for objects of class Randomizer
@@ -25,10 +31,16 @@ public class Randomizer
 
     /**
      * Provide a random generator.
+     * If a generator has been bound to the current thread, that one
+     * is provided.
      * @return A random object.
      */
     public static Random getRandom()
     {
+        Random bound = boundRandom.get();
+        if(bound != null) {
+            return bound;
+        }
         if(useShared) {
             return rand;
         }
@@ -37,6 +49,39 @@ public class Randomizer
         }
     }
     
+    /**
+     * Bind a generator to the current thread, or remove the binding.
+     * While bound, getRandom returns it on this thread only.
+     * @param random The generator to bind, or null to unbind.
+     * @return The generator that was bound before, or null if none was.
+     */
+    public static Random bind(Random random)
+    {
+        Random previous = boundRandom.get();
+        if(random == null) {
+            boundRandom.remove();
+        }
+        else {
+            boundRandom.set(random);
+        }
+        return previous;
+    }
+    
+    /**
+     * Provide a generator for one stream of one step of a run. Streams
+     * do not share state, so each can be drawn from on its own thread,
+     * and the numbers a stream gives do not depend on the order in
+     * which streams are used.
+     * @param seed The seed of the run.
+     * @param step The step of the run.
+     * @param stream The stream within the step, e.g. a cell index.
+     * @return A generator for the stream.
+     */
+    public static StreamRandom getStream(long seed, long step, long stream)
+    {
+        return new StreamRandom(seed, step, stream);
+    }
+
     /**
      * Reset the randomization.
      * This will have no effect if randomization is not 
@@ -48,4 +93,37 @@ public class Randomizer
             rand.setSeed(SEED);
         }
     }
+
+    /**
+     * A counter-based generator that may be shared between threads.
+     * Every number is drawn through nextLong, so locking it and the
+     * methods that move the counter is enough.
+     */
+    private static class SharedStreamRandom extends StreamRandom
+    {
+        private static final long serialVersionUID = 1L;
+
+        SharedStreamRandom(long seed)
+        {
+            super(seed);
+        }
+
+        @Override
+        public synchronized void setSeed(long seed)
+        {
+            super.setSeed(seed);
+        }
+
+        @Override
+        public synchronized void setStream(long seed, long step, long stream)
+        {
+            super.setStream(seed, step, stream);
+        }
+
+        @Override
+        public synchronized long nextLong()
+        {
+            return super.nextLong();
+        }
+    }
 }
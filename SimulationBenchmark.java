@@ -0,0 +1,300 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A quick benchmark suite for the hot paths of the simulation: a whole
+ * step, populating the field, the neighbourhood queries, the viability
+ * check, keeping the view's mipmap and the bulk ageing of animal
+ * columns. A whole step is timed for every thread count given, to show
+ * how it scales. Each path is run for every grid size given, and the
+ * suite reports its throughput, the heap allocated per operation and
+ * percentiles of the time per operation. Drawing the view is not
+ * timed, as it happens on the event thread and needs a display.
+ *
+ * This runs in one JVM with a fixed warm-up, so it is only a rough
+ * guide; the JMH benchmarks in jmh/ are the ones to trust. The bulk
+ * ageing only uses the Vector API kernel if the JVM is started with
+ * --add-modules jdk.incubator.vector; otherwise AnimalStore.age and
+ * AnimalStore.ageScalar run the same loop.
+ *
+ * Arguments are optional and take the form name=value:
+ *   sizes=80x120,1000x1000   grid sizes (depth x width) to run
+ *   density=0.3              occupancy of fields built for the field paths
+ *   steps=50                 measured steps (and operations) per path
+ *   threads=1,2,4            thread counts to time a whole step with
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class SimulationBenchmark
+{
+    // The percentiles of the time per operation that are reported.
+    private static final double[] PERCENTILES = { 50, 90, 99, 100 };
+    // Field queries are timed in batches of this many, as a single
+    // query is too quick to time on its own.
+    private static final int QUERY_BATCH = 1000;
+
+    // The grid sizes to run, as {depth, width} pairs.
+    private final int[][] sizes;
+    // The occupancy of fields built for the field paths.
+    private final double density;
+    // The number of measured operations per path. The same number
+    // again is run first, unmeasured, to warm up.
+    private final int steps;
+    // The thread counts a whole step is timed with.
+    private final int[] threadCounts;
+
+    /**
+     * Create a benchmark suite.
+     * @param sizes The grid sizes to run, as {depth, width} pairs.
+     * @param density The occupancy of fields built for the field paths.
+     * @param steps The number of measured operations per path.
+     * @param threadCounts The thread counts a whole step is timed with.
+     */
+    public SimulationBenchmark(int[][] sizes, double density, int steps, int[] threadCounts)
+    {
+        this.sizes = sizes;
+        this.density = density;
+        this.steps = steps;
+        this.threadCounts = threadCounts;
+    }
+
+    /**
+     * Run the benchmark suite.
+     * @param args Optional sizes=, density=, steps= and threads= settings.
+     */
+    public static void main(String[] args)
+    {
+        int[][] sizes = { { 80, 120 }, { 500, 500 }, { 1000, 1000 } };
+        double density = 0.3;
+        int steps = 50;
+        int[] threadCounts = { 1, Runtime.getRuntime().availableProcessors() };
+        for(String arg : args) {
+            String[] setting = arg.split("=", 2);
+            switch(setting[0]) {
+                case "sizes" -> sizes = Arrays.stream(setting[1].split(","))
+                                              .map(size -> size.split("x"))
+                                              .map(size -> new int[] { Integer.parseInt(size[0]),
+                                                                       Integer.parseInt(size[1]) })
+                                              .toArray(int[][]::new);
+                case "density" -> density = Double.parseDouble(setting[1]);
+                case "steps" -> steps = Integer.parseInt(setting[1]);
+                case "threads" -> threadCounts = Arrays.stream(setting[1].split(","))
+                                                       .mapToInt(Integer::parseInt)
+                                                       .toArray();
+                default -> throw new IllegalArgumentException("Unknown setting: " + arg);
+            }
+        }
+        new SimulationBenchmark(sizes, density, steps,
+                                Arrays.stream(threadCounts).distinct().toArray()).run();
+    }
+
+    /**
+     * Run every path for every grid size and print the results.
+     */
+    public void run()
+    {
+        System.out.printf("%-26s %-11s %12s %12s %10s %10s %10s %10s%n",
+                          "path", "grid", "ops/s", "bytes/op", "p50 us", "p90 us", "p99 us", "max us");
+        for(int[] size : sizes) {
+            int depth = size[0];
+            int width = size[1];
+            String grid = depth + "x" + width;
+
+            Simulator simulator = Simulator.createHeadless(depth, width, false);
+            for(int threads : threadCounts) {
+                simulator.setThreads(threads);
+                measure("simulateOneStep threads=" + threads, grid, 1, () -> {
+                    if(!simulator.isViable()) {
+                        simulator.reset();
+                    }
+                    simulator.simulateOneStep();
+                });
+            }
+            simulator.setThreads(1);
+            measure("populate", grid, 1, simulator::reset);
+            // What the view does on the simulation thread: build its
+            // mipmap from every cell, or update it from a step's changes,
+            // timed on their own so that the step is left out. Drawing
+            // happens later on the event thread and is not timed. The
+            // simulator only works out its changes for an observer that
+            // wants them, so one that does nothing else is added.
+            FieldMipmap mipmap = new FieldMipmap(depth, width);
+            measure("FieldMipmap.setAll", grid, 1, () -> mipmap.setAll(simulator.getField()));
+            simulator.addObserver(new ChangeReader());
+            long applyTime = 0;
+            for(int i = 0; i < steps; i++) {
+                if(!simulator.isViable()) {
+                    simulator.reset();
+                    mipmap.setAll(simulator.getField());
+                }
+                simulator.simulateOneStep();
+                long start = System.nanoTime();
+                mipmap.apply(simulator.getField(), simulator.getChanges());
+                applyTime += System.nanoTime() - start;
+            }
+            System.out.printf("%-26s %-11s %12.0f%n", "FieldMipmap.apply", grid, steps / (applyTime / 1e9));
+
+            Field field = filledField(depth, width);
+            Random rand = new Random(7);
+            Neighbourhood cursor = new Neighbourhood();
+            measure("getAdjacentLocations", grid, QUERY_BATCH, () -> {
+                for(int i = 0; i < QUERY_BATCH; i++) {
+                    field.getAdjacentLocations(randomLocation(field, rand));
+                }
+            });
+            measure("getFreeAdjacentLocations", grid, QUERY_BATCH, () -> {
+                for(int i = 0; i < QUERY_BATCH; i++) {
+                    field.getFreeAdjacentLocations(randomLocation(field, rand));
+                }
+            });
+            measure("freeAdjacent", grid, QUERY_BATCH, () -> {
+                for(int i = 0; i < QUERY_BATCH; i++) {
+                    field.freeAdjacent(randomLocation(field, rand), cursor);
+                }
+            });
+            measure("isViable", grid, QUERY_BATCH, () -> {
+                for(int i = 0; i < QUERY_BATCH; i++) {
+                    simulator.isViable();
+                }
+            });
+
+            // One row per animal at the benchmark's density. The columns
+            // are reset before each run so that no row ever dies.
+            int rows = (int) (depth * width * density);
+            int[] ages = new int[rows];
+            int[] foodLevels = new int[rows];
+            int[] hungers = new int[rows];
+            byte[] flags = new byte[rows];
+            for(int i = 0; i < rows; i++) {
+                boolean infected = rand.nextInt(10) == 0;
+                hungers[i] = infected ? Animal.INFECTED_HUNGER : 1;
+                flags[i] = (byte) (AnimalStore.ALIVE | (infected ? AnimalStore.INFECTED : 0));
+            }
+            measure("AnimalStore.age", grid, rows, () -> {
+                Arrays.fill(ages, 0);
+                Arrays.fill(foodLevels, Integer.MAX_VALUE);
+                AnimalStore.age(ages, foodLevels, hungers, rows, Integer.MAX_VALUE);
+            });
+            measure("AnimalStore.ageScalar", grid, rows, () -> {
+                Arrays.fill(ages, 0);
+                Arrays.fill(foodLevels, Integer.MAX_VALUE);
+                AnimalStore.ageScalar(ages, foodLevels, hungers, rows, Integer.MAX_VALUE);
+            });
+            measure("per-animal age", grid, rows, () -> {
+                Arrays.fill(ages, 0);
+                Arrays.fill(foodLevels, Integer.MAX_VALUE);
+                ageEach(ages, foodLevels, flags, rows, Integer.MAX_VALUE);
+            });
+        }
+    }
+
+    /**
+     * Age and starve every row the way a single animal does, with a
+     * branch on its infection and on each death threshold. This is the
+     * baseline the bulk kernel is compared with.
+     * @return The number of rows that are now too old or starving.
+     */
+    private static int ageEach(int[] ages, int[] foodLevels, byte[] flags, int size, int maxAge)
+    {
+        int dying = 0;
+        for(int i = 0; i < size; i++) {
+            if((flags[i] & AnimalStore.ALIVE) != 0) {
+                if(++ages[i] > maxAge) {
+                    dying++;
+                }
+                if((flags[i] & AnimalStore.INFECTED) != 0) {
+                    foodLevels[i] -= Animal.INFECTED_HUNGER;
+                }
+                else {
+                    foodLevels[i]--;
+                }
+                if(foodLevels[i] <= 0) {
+                    dying++;
+                }
+            }
+        }
+        return dying;
+    }
+
+    /**
+     * Time one path and print a line of results.
+     * @param path The name of the path.
+     * @param grid The grid size, for the report.
+     * @param opsPerRun The number of operations each run of the task performs.
+     * @param task The task to time.
+     */
+    private void measure(String path, String grid, int opsPerRun, Runnable task)
+    {
+        for(int i = 0; i < steps; i++) {
+            task.run();
+        }
+        long[] times = new long[steps];
+        long allocatedBefore = Simulator.allocatedBytes();
+        long start = System.nanoTime();
+        for(int i = 0; i < steps; i++) {
+            long runStart = System.nanoTime();
+            task.run();
+            times[i] = System.nanoTime() - runStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = Simulator.allocatedBytes() - allocatedBefore;
+
+        Arrays.sort(times);
+        long ops = (long) steps * opsPerRun;
+        StringBuilder line = new StringBuilder(String.format("%-26s %-11s %12.0f %12.1f",
+                path, grid, ops / (elapsed / 1e9), allocatedBefore < 0 ? Double.NaN : (double) allocated / ops));
+        for(double percentile : PERCENTILES) {
+            int index = Math.min(times.length - 1, (int) Math.ceil(percentile / 100 * times.length) - 1);
+            line.append(String.format(" %10.2f", times[Math.max(index, 0)] / 1e3 / opsPerRun));
+        }
+        System.out.println(line);
+    }
+
+    /**
+     * Build a field filled with plants to the benchmark's density.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     * @return The field.
+     */
+    private Field filledField(int depth, int width)
+    {
+        Random rand = new Random(5);
+        Field field = new Field(depth, width);
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                if(rand.nextDouble() < density) {
+                    Location location = field.getLocation(row, col);
+                    field.placeBeing(new Leaf(false, location, null, false), location);
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * @return A random location within the field.
+     */
+    private static Location randomLocation(Field field, Random rand)
+    {
+        return field.getLocation(rand.nextInt(field.getDepth()), rand.nextInt(field.getWidth()));
+    }
+
+    /**
+     * An observer that only asks for each step's changes to be worked
+     * out, so that they can be read from the simulator.
+     */
+    private static class ChangeReader implements SimulatorObserver
+    {
+        @Override
+        public void showStatus(int step, Field field)
+        {
+        }
+
+        @Override
+        public boolean wantsChanges()
+        {
+            return true;
+        }
+    }
+}
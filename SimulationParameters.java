@@ -0,0 +1,272 @@
+/**
+ * The tunable constants of a simulation: the probability of creating
+ * each species when the field is populated, and the breeding, ageing
+ * and feeding constants of each species. A simulator holds one set,
+ * and its beings read their constants from it, so different settings
+ * can be run side by side in one JVM.
+ *
+ * A new set holds the defaults declared in Simulator and the species
+ * classes. Single values are changed by name, e.g.
+ * "CROCODILE.BREEDING_PROBABILITY", "FRUIT.CREATION_PROBABILITY" or
+ * "SNAKE.BIRD_FOOD_VALUE".
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class SimulationParameters
+{
+    // The defaults, shared by beings that belong to no simulator.
+    static final SimulationParameters DEFAULTS = new SimulationParameters();
+
+    // The constants of each species, indexed by species ordinal.
+    private final double[] creationProbabilities;
+    private final int[] breedingAges;
+    private final int[] maxAges;
+    private final double[] breedingProbabilities;
+    private final int[] maxLitterSizes;
+    // The food value of eating a being, indexed by the ordinal of the
+    // eater and then of the species eaten. Zero if it is not eaten.
+    private final int[][] foodValues;
+
+    /**
+     * Create a set of parameters holding the defaults.
+     */
+    public SimulationParameters()
+    {
+        int count = Species.values().length;
+        creationProbabilities = new double[count];
+        breedingAges = new int[count];
+        maxAges = new int[count];
+        breedingProbabilities = new double[count];
+        maxLitterSizes = new int[count];
+        foodValues = new int[count][count];
+
+        setCreationProbability(Species.CROCODILE, Simulator.CROCODILE_CREATION_PROBABILITY);
+        setCreationProbability(Species.BIRD, Simulator.BIRD_CREATION_PROBABILITY);
+        setCreationProbability(Species.SNAKE, Simulator.SNAKE_CREATION_PROBABILITY);
+        setCreationProbability(Species.FISH, Simulator.FISH_CREATION_PROBABILITY);
+        setCreationProbability(Species.LIZARD, Simulator.LIZARD_CREATION_PROBABILITY);
+        setCreationProbability(Species.FRUIT, Simulator.FRUIT_CREATION_PROBABILITY);
+        setCreationProbability(Species.ALGAE, Simulator.ALGAE_CREATION_PROBABILITY);
+        setCreationProbability(Species.LEAF, Simulator.LEAF_CREATION_PROBABILITY);
+
+        setAnimal(Species.CROCODILE, Crocodile.BREEDING_AGE, Crocodile.MAX_AGE,
+                  Crocodile.BREEDING_PROBABILITY, Crocodile.MAX_LITTER_SIZE);
+        setAnimal(Species.BIRD, Bird.BREEDING_AGE, Bird.MAX_AGE,
+                  Bird.BREEDING_PROBABILITY, Bird.MAX_LITTER_SIZE);
+        setAnimal(Species.SNAKE, Snake.BREEDING_AGE, Snake.MAX_AGE,
+                  Snake.BREEDING_PROBABILITY, Snake.MAX_LITTER_SIZE);
+        setAnimal(Species.FISH, Fish.BREEDING_AGE, Fish.MAX_AGE,
+                  Fish.BREEDING_PROBABILITY, Fish.MAX_LITTER_SIZE);
+        setAnimal(Species.LIZARD, Lizard.BREEDING_AGE, Lizard.MAX_AGE,
+                  Lizard.BREEDING_PROBABILITY, Lizard.MAX_LITTER_SIZE);
+        maxAges[Species.FRUIT.ordinal()] = Fruit.MAX_AGE;
+        maxAges[Species.ALGAE.ordinal()] = Algae.MAX_AGE;
+        maxAges[Species.LEAF.ordinal()] = Leaf.MAX_AGE;
+
+        setFoodValue(Species.CROCODILE, Species.BIRD, Crocodile.BIRD_FOOD_VALUE);
+        setFoodValue(Species.CROCODILE, Species.FISH, Crocodile.FISH_FOOD_VALUE);
+        setFoodValue(Species.SNAKE, Species.BIRD, Snake.BIRD_FOOD_VALUE);
+        setFoodValue(Species.SNAKE, Species.LIZARD, Snake.LIZARD_FOOD_VALUE);
+        setFoodValue(Species.BIRD, Species.FRUIT, Bird.FRUIT_FOOD_VALUE);
+        setFoodValue(Species.FISH, Species.ALGAE, Fish.ALGAE_FOOD_VALUE);
+        setFoodValue(Species.LIZARD, Species.LEAF, Lizard.LEAF_FOOD_VALUE);
+    }
+
+    /**
+     * Create a copy of a set of parameters.
+     * @param other The parameters to copy.
+     */
+    public SimulationParameters(SimulationParameters other)
+    {
+        creationProbabilities = other.creationProbabilities.clone();
+        breedingAges = other.breedingAges.clone();
+        maxAges = other.maxAges.clone();
+        breedingProbabilities = other.breedingProbabilities.clone();
+        maxLitterSizes = other.maxLitterSizes.clone();
+        foodValues = new int[other.foodValues.length][];
+        for(int i = 0; i < foodValues.length; i++) {
+            foodValues[i] = other.foodValues[i].clone();
+        }
+    }
+
+    /**
+     * Set a parameter by name. The name is a species and a constant
+     * separated by a dot, e.g. "BIRD.MAX_LITTER_SIZE". Food values are
+     * named after the species eaten, e.g. "CROCODILE.FISH_FOOD_VALUE",
+     * and only exist for what the species actually eats. Whole-number
+     * constants are rounded. Probabilities must be between 0 and 1, a
+     * breeding age must not be negative, and maximum ages, litter sizes
+     * and food values must be at least 1.
+     * @param name The name of the parameter.
+     * @param value The new value.
+     * @throws IllegalArgumentException If there is no such parameter, or
+     *         the value is out of range for it.
+     */
+    public void set(String name, double value)
+    {
+        String[] parts = name.split("\\.", 2);
+        Species species = parseSpecies(name, parts[0]);
+        String constant = parts.length > 1 ? parts[1] : "";
+        switch(constant) {
+            case "CREATION_PROBABILITY" -> setCreationProbability(species, requireProbability(name, value));
+            case "MAX_AGE" -> maxAges[species.ordinal()] = requireWhole(name, value, 1);
+            case "BREEDING_AGE" -> breedingAges[requireAnimal(name, species)] = requireWhole(name, value, 0);
+            case "BREEDING_PROBABILITY" ->
+                breedingProbabilities[requireAnimal(name, species)] = requireProbability(name, value);
+            case "MAX_LITTER_SIZE" -> maxLitterSizes[requireAnimal(name, species)] = requireWhole(name, value, 1);
+            default -> {
+                if(!constant.endsWith("_FOOD_VALUE")) {
+                    throw new IllegalArgumentException("Unknown parameter: " + name);
+                }
+                Species food = parseSpecies(name, constant.substring(0, constant.length() - "_FOOD_VALUE".length()));
+                // Only pairs with a food value are eaten, and values are
+                // never set to 0, so a pair without one is not a diet.
+                if(getFoodValue(species, food) == 0) {
+                    throw new IllegalArgumentException(species + " does not eat " + food + ": " + name);
+                }
+                setFoodValue(species, food, requireWhole(name, value, 1));
+            }
+        }
+    }
+
+    /**
+     * @param species A species.
+     * @return The probability that a cell holds the species when the
+     *         field is populated.
+     */
+    public double getCreationProbability(Species species)
+    {
+        return creationProbabilities[species.ordinal()];
+    }
+
+    /**
+     * @param species An animal species.
+     * @return The age at which the species can start to breed.
+     */
+    public int getBreedingAge(Species species)
+    {
+        return breedingAges[species.ordinal()];
+    }
+
+    /**
+     * @param species A species.
+     * @return The age to which the species can live.
+     */
+    public int getMaxAge(Species species)
+    {
+        return maxAges[species.ordinal()];
+    }
+
+    /**
+     * @param species An animal species.
+     * @return The likelihood of the species breeding.
+     */
+    public double getBreedingProbability(Species species)
+    {
+        return breedingProbabilities[species.ordinal()];
+    }
+
+    /**
+     * @param species An animal species.
+     * @return The maximum number of births.
+     */
+    public int getMaxLitterSize(Species species)
+    {
+        return maxLitterSizes[species.ordinal()];
+    }
+
+    /**
+     * @param eater An animal species.
+     * @param food The species it eats.
+     * @return The number of steps the eater can go after eating the
+     *         food before it has to eat again.
+     */
+    public int getFoodValue(Species eater, Species food)
+    {
+        return foodValues[eater.ordinal()][food.ordinal()];
+    }
+
+    /**
+     * @param eater An animal species.
+     * @return The highest food value of anything the species eats.
+     */
+    public int getMaxFoodValue(Species eater)
+    {
+        int max = 0;
+        for(int value : foodValues[eater.ordinal()]) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private void setCreationProbability(Species species, double probability)
+    {
+        creationProbabilities[species.ordinal()] = probability;
+    }
+
+    private void setAnimal(Species species, int breedingAge, int maxAge,
+                           double breedingProbability, int maxLitterSize)
+    {
+        breedingAges[species.ordinal()] = breedingAge;
+        maxAges[species.ordinal()] = maxAge;
+        breedingProbabilities[species.ordinal()] = breedingProbability;
+        maxLitterSizes[species.ordinal()] = maxLitterSize;
+    }
+
+    private void setFoodValue(Species eater, Species food, int value)
+    {
+        foodValues[eater.ordinal()][food.ordinal()] = value;
+    }
+
+    /**
+     * Return the species with the given name.
+     * @throws IllegalArgumentException If there is no such species.
+     */
+    private static Species parseSpecies(String name, String species)
+    {
+        try {
+            return Species.valueOf(species);
+        }
+        catch(IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown parameter: " + name);
+        }
+    }
+
+    /**
+     * Return a probability, checking that it is between 0 and 1.
+     * @throws IllegalArgumentException If it is not.
+     */
+    private static double requireProbability(String name, double value)
+    {
+        if(!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Round a value to a whole number, checking that it is at least a
+     * given minimum.
+     * @throws IllegalArgumentException If it is less than the minimum.
+     */
+    private static int requireWhole(String name, double value, int minimum)
+    {
+        if(!(value >= minimum - 0.5 && value < Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException(name + " must be at least " + minimum + ": " + value);
+        }
+        return (int) Math.round(value);
+    }
+
+    /**
+     * Return the ordinal of an animal species.
+     * @throws IllegalArgumentException If the species is a plant.
+     */
+    private static int requireAnimal(String name, Species species)
+    {
+        if(!species.isAnimal()) {
+            throw new IllegalArgumentException("Plants have no parameter " + name);
+        }
+        return species.ordinal();
+    }
+}
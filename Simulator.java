@@ -1,4 +1,5 @@
 import java.util.*;
+import java.lang.management.ManagementFactory;
 /**
  * A simple predator-prey simulator, based on a rectangular field containing 
  * animals and plants.
@@ -9,37 +10,80 @@ import java.util.*;
 public class Simulator
 {
     // Constants representing configuration information for the simulation.
+    // The creation probabilities are defaults, which a simulation can
+    // override through its SimulationParameters.
     // The default width for the grid.
     private static final int DEFAULT_WIDTH = 120;
     // The default depth of the grid.
     private static final int DEFAULT_DEPTH = 80;
     // The probability that a crocodile will be created in any given grid position.
-    private static final double CROCODILE_CREATION_PROBABILITY = 0.03;
+    static final double CROCODILE_CREATION_PROBABILITY = 0.03;
     // The probability that a bird will be created in any given position.
-    private static final double BIRD_CREATION_PROBABILITY = 0.08;    
+    static final double BIRD_CREATION_PROBABILITY = 0.08;    
     // The probability that a snake will be created in any given position.
-    private static final double SNAKE_CREATION_PROBABILITY = 0.03; 
+    static final double SNAKE_CREATION_PROBABILITY = 0.03; 
     // The probability that a fish will be created in any given position.
-    private static final double FISH_CREATION_PROBABILITY = 0.08;
+    static final double FISH_CREATION_PROBABILITY = 0.08;
     // The probability that a lizard will be created in any given position.
-    private static final double LIZARD_CREATION_PROBABILITY = 0.08; 
+    static final double LIZARD_CREATION_PROBABILITY = 0.08; 
     // The probability that a fruit will be created in any given position.
-    private static final double FRUIT_CREATION_PROBABILITY = 0.02; 
+    static final double FRUIT_CREATION_PROBABILITY = 0.02; 
     // The probability that an algae will be created in any given position.
-    private static final double ALGAE_CREATION_PROBABILITY = 0.02; 
+    static final double ALGAE_CREATION_PROBABILITY = 0.02; 
     // The probability that a leaf will be created in any given position.
-    private static final double LEAF_CREATION_PROBABILITY = 0.02; 
+    static final double LEAF_CREATION_PROBABILITY = 0.02; 
+    // Every species, kept so that stepping does not copy Species.values().
+    private static final Species[] SPECIES = Species.values();
 
     // The current state of the field.
     private Field field;
+    // The field buffer the next state is built in. It is swapped with
+    // field after every step, so no field is allocated while running.
+    private Field nextField;
+    // The number of bytes allocated by the last step, or -1 if the
+    // JVM cannot measure it.
+    private long stepAllocation;
     // The current step of the simulation.
     private int step;
+    // For each species, by ordinal, whether it rests this step, and
+    // whether it has already rested in bulk instead of acting. Both are
+    // worked out again at the start of every step.
+    private final boolean[] resting = new boolean[SPECIES.length];
+    private final boolean[] restedInBulk = new boolean[SPECIES.length];
+    // The number of steps since the last reset on which plants grew.
+    // Plants work out their age from it.
+    private int growthTicks;
+    // The growth ticks at which plants expire.
+    private final ExpirySchedule expiries = new ExpirySchedule();
+    // The seed of the random streams used when stepping in parallel,
+    // drawn from the shared generator at every reset.
+    private long runSeed;
     // The current time of day (e.g., "daytime" or "night").
     private String timeOfDay;
-    // A graphical view of the simulation.
-    private final SimulatorView view;
+    // What changed in the field during the last step.
+    private final FieldChanges changes = new FieldChanges();
+    // The observers told about every step, e.g. a graphical view.
+    private final List<SimulatorObserver> observers = new ArrayList<>();
+    // Whether any observer reads the changes of each step.
+    private boolean recordingChanges;
+    // The step rate a simulator with a display runs at by default.
+    static final double DEFAULT_STEP_RATE = 6;
+
+    // Paces the steps of a run.
+    private final StepPacer pacer = new StepPacer(0);
     // The current weather condition in the simulation.
     private Weather weather;
+    // The columnar stores of animal state, one per species, or null if
+    // each animal holds its own state.
+    private final AnimalStore[] animalStores;
+    // The engine that runs each step on several threads, or null to
+    // run steps on the calling thread.
+    private ParallelStepEngine engine;
+    // The simulator's own random generator, or null if it uses the
+    // shared one. It is bound to the thread running a step or reset.
+    private final Random random;
+    // The constants the simulation and its beings run with.
+    private final SimulationParameters parameters;
 
     // Enum representing different weather conditions in the simulation.
     private enum Weather {
@@ -62,6 +106,100 @@ public class Simulator
      * @param width Width of the field. Must be greater than zero.
      */
     public Simulator(int depth, int width)
+    {
+        this(depth, width, false);
+    }
+
+    /**
+     * Create a simulation field with the given size, choosing how
+     * animal state is stored.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param columnarState If true, the age, food level and infection of
+     *        each species are kept in an AnimalStore and advanced for the
+     *        whole species in one pass per step.
+     */
+    public Simulator(int depth, int width, boolean columnarState)
+    {
+        this(depth, width, columnarState, true, null, new SimulationParameters());
+    }
+
+    /**
+     * Create a simulation with no display, no console output and no
+     * pause between steps, for running on machines without a screen.
+     * Observers can be added to it before it is run.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param columnarState If true, animal state is kept in AnimalStores.
+     * @return The new simulator.
+     */
+    public static Simulator createHeadless(int depth, int width, boolean columnarState)
+    {
+        return new Simulator(depth, width, columnarState, false, null, new SimulationParameters());
+    }
+
+    /**
+     * Create a simulation with no display and its own random generator.
+     * It shares no state with other simulators, so several can be run
+     * at once on different threads, and the same seed always gives
+     * the same run.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param columnarState If true, animal state is kept in AnimalStores.
+     * @param seed The seed of the simulator's random generator.
+     * @return The new simulator.
+     */
+    public static Simulator createHeadless(int depth, int width, boolean columnarState, long seed)
+    {
+        return createHeadless(depth, width, columnarState, new SimulationParameters(), seed);
+    }
+
+    /**
+     * Create a simulation with no display, its own random generator and
+     * its own parameters. The parameters are copied, so they can be
+     * changed for the next simulator without affecting this one.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param parameters The constants to run the simulation with.
+     * @param seed The seed of the simulator's random generator.
+     * @return The new simulator.
+     */
+    public static Simulator createHeadless(int depth, int width, SimulationParameters parameters, long seed)
+    {
+        return createHeadless(depth, width, false, parameters, seed);
+    }
+
+    /**
+     * Create a simulation with no display, its own random generator and
+     * its own parameters, choosing how animal state is stored. The
+     * parameters are copied.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param columnarState If true, animal state is kept in AnimalStores.
+     * @param parameters The constants to run the simulation with.
+     * @param seed The seed of the simulator's random generator.
+     * @return The new simulator.
+     */
+    public static Simulator createHeadless(int depth, int width, boolean columnarState,
+                                           SimulationParameters parameters, long seed)
+    {
+        return new Simulator(depth, width, columnarState, false, new StreamRandom(seed),
+                             new SimulationParameters(parameters));
+    }
+
+    /**
+     * Create a simulation field with the given size.
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param columnarState If true, animal state is kept in AnimalStores.
+     * @param showView If true, show the simulation in a window and on
+     *        the console, pausing after each step so it can be watched.
+     * @param random The simulator's own random generator, or null to
+     *        use the shared one.
+     * @param parameters The constants to run the simulation with.
+     */
+    private Simulator(int depth, int width, boolean columnarState, boolean showView, Random random,
+                      SimulationParameters parameters)
     {
         if(width <= 0 || depth <= 0) {
             System.out.println("The dimensions must be >= zero.");
@@ -71,7 +209,19 @@ public class Simulator
         }
 
         field = new Field(depth, width);
-        view = new SimulatorView(depth, width, this);
+        nextField = new Field(field);
+        // Plants stay in both buffers, and are only touched when they
+        // change.
+        field.keepPlants();
+        nextField.keepPlants();
+        animalStores = columnarState ? new AnimalStore[Species.values().length] : null;
+        this.random = random;
+        this.parameters = parameters;
+        if(showView) {
+            pacer.setTargetRate(DEFAULT_STEP_RATE);    // adjust this to change execution speed
+            addObserver(new SimulatorView(depth, width, this));
+            addObserver(new ConsoleObserver(this));
+        }
 
         reset();
     }
@@ -92,10 +242,129 @@ public class Simulator
      */
     public void simulate(int numSteps)
     {
-        reportStats();
-        for(int n = 1; n <= numSteps && field.isViable(); n++) {
+        pacer.start();
+        for(int n = 1; n <= numSteps && isViable(); n++) {
             simulateOneStep();
-            delay(150);         // adjust this to change execution speed
+            pacer.stepTaken();
+        }
+    }
+
+    /**
+     * Return whether the simulation is still viable, i.e. whether
+     * every animal species is still alive.
+     * @return true if the simulation can continue.
+     */
+    public boolean isViable()
+    {
+        return field.isViable();
+    }
+
+    /**
+     * Return the current state of the field.
+     * @return The field.
+     */
+    public Field getField()
+    {
+        return field;
+    }
+
+    /**
+     * Return the constants the simulation runs with.
+     * @return The parameters.
+     */
+    public SimulationParameters getParameters()
+    {
+        return parameters;
+    }
+
+    /**
+     * Return the number of steps run since the last reset.
+     * @return The current step.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+
+    /**
+     * Return the number of steps since the last reset on which plants
+     * grew. A plant ages by one on each of them.
+     * @return The growth clock.
+     */
+    public int getGrowthTicks()
+    {
+        return growthTicks;
+    }
+
+    /**
+     * Add an observer to be told about the state after every step.
+     * @param observer The observer.
+     */
+    public void addObserver(SimulatorObserver observer)
+    {
+        observers.add(observer);
+        recordingChanges |= observer.wantsChanges();
+    }
+
+    /**
+     * Set the number of steps per second a run is paced to. This may be
+     * changed while the simulation runs.
+     * @param stepsPerSecond The target rate, or 0 for as fast as possible.
+     */
+    public void setStepRate(double stepsPerSecond)
+    {
+        pacer.setTargetRate(stepsPerSecond);
+    }
+
+    /**
+     * @return The pacer of the simulation's runs, which reports the
+     *         rate achieved and how late the last step was.
+     */
+    public StepPacer getPacer()
+    {
+        return pacer;
+    }
+
+    /**
+     * Set the number of threads each step is run on. With one thread
+     * the beings act in the order of the field's being list; with more
+     * the field is split into tiles that act in parallel. Columnar
+     * state is only updated from one thread, so a simulator using it
+     * can only run on one thread.
+     * @param threads The number of threads. Must be at least one.
+     * @throws IllegalStateException If threads is more than one and
+     *         the simulator keeps animal state in columns.
+     */
+    public void setThreads(int threads)
+    {
+        setThreads(threads, false);
+    }
+
+    /**
+     * Set the number of threads each step is run on, and whether
+     * placements are resolved in a second phase. If they are, every
+     * being first states where it wants to go, given the field as it
+     * was at the start of the step, and then one winner is chosen for
+     * each cell. The result then does not depend on the order in which
+     * beings act, even on one thread.
+     * @param threads The number of threads. Must be at least one.
+     * @param resolveIntents If true, placements are resolved in a
+     *        second phase.
+     * @throws IllegalStateException If threads is more than one or
+     *         resolveIntents is true, and the simulator keeps animal
+     *         state in columns.
+     */
+    public void setThreads(int threads, boolean resolveIntents)
+    {
+        if((threads > 1 || resolveIntents) && animalStores != null) {
+            throw new IllegalStateException("Columnar state cannot be updated in parallel or from intents");
+        }
+        if(engine != null) {
+            engine.shutdown();
+            engine = null;
+        }
+        if(threads > 1 || resolveIntents) {
+            engine = new ParallelStepEngine(threads, resolveIntents);
         }
     }
 
@@ -105,14 +374,76 @@ public class Simulator
      */
     public void simulateOneStep()
     {
+        Random previous = bindRandom();
+        try {
+            step();
+        }
+        finally {
+            unbindRandom(previous);
+        }
+        for(SimulatorObserver observer : observers) {
+            observer.showChanges(step, field, changes);
+        }
+    }
+
+    /**
+     * Advance the field by one step.
+     */
+    private void step()
+    {
+        long allocatedBefore = allocatedBytes();
         step++;
-        // Use a separate Field to store the starting state of
-        // the next step.
-        Field nextFieldState = new Field(field.getDepth(), field.getWidth());
+        if(isGrowingWeather()) {
+            growthTicks++;
+        }
+        // Reuse the spare buffer to store the starting state of
+        // the next step. Its plants are those of two steps ago, so only
+        // the cells where plants changed in the last step are copied.
+        Field nextFieldState = nextField;
+        nextFieldState.clearAnimals();
+        nextFieldState.catchUpPlants(field);
+        expirePlants(nextFieldState);
 
-        List<Being> beings = field.getBeings();
-        for (Being aBeing : beings) {
-            aBeing.act(field, nextFieldState);
+        for(Species species : SPECIES) {
+            resting[species.ordinal()] = isResting(species);
+        }
+        Arrays.fill(restedInBulk, false);
+        if(animalStores != null) {
+            // Age and starve every animal before any of them acts.
+            for(AnimalStore store : animalStores) {
+                if(store != null) {
+                    store.advance();
+                }
+            }
+            // Species in their inactive phase only stay put, so they are
+            // placed in bulk and left out of the act calls below.
+            for(Species species : SPECIES) {
+                AnimalStore store = animalStores[species.ordinal()];
+                if(store != null && resting[species.ordinal()]) {
+                    store.rest(field, nextFieldState);
+                    restedInBulk[species.ordinal()] = true;
+                }
+            }
+        }
+        if(engine != null) {
+            engine.step(field, nextFieldState, runSeed, step, resting);
+        }
+        else {
+            // Only animals are listed, as plants do not act. A resting
+            // animal only stays put, so it skips the search for free
+            // cells that act would make.
+            List<Being> beings = field.getBeings();
+            for (Being aBeing : beings) {
+                int species = aBeing.getSpecies().ordinal();
+                if(resting[species]) {
+                    if(!restedInBulk[species]) {
+                        ((Animal) aBeing).rest(field, nextFieldState);
+                    }
+                }
+                else {
+                    aBeing.act(field, nextFieldState);
+                }
+            }
         }
         // Every 10 steps represents change in time - from day to night.
         if (step % 10 == 0) {
@@ -122,7 +453,6 @@ public class Simulator
             else {
                 timeOfDay = "daytime";
             }
-            System.out.println("It is now " + timeOfDay);
         }
         
         // Every 20 steps (a full day) there is a random change of weather - sunny, rainy, or foggy.
@@ -132,14 +462,55 @@ public class Simulator
                     case 0 -> Weather.rainy;
                     case 1 -> Weather.foggy;
                     default -> Weather.sunny;};
-            System.out.println("The weather today is " + weather);
         }
 
-        // Replace the old state with the new one.
+        // Replace the old state with the new one, keeping the old
+        // one as the buffer for the following step.
+        nextField = field;
         field = nextFieldState;
+        // Working out the changes walks both being lists, so it is
+        // only done for an observer that reads them.
+        if(recordingChanges) {
+            changes.record(nextField, field);
+        }
+        stepAllocation = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+    }
+
+    /**
+     * Let every plant that has reached the end of its life wither,
+     * before any animal acts.
+     * @param nextFieldState The new state being built.
+     */
+    private void expirePlants(Field nextFieldState)
+    {
+        for(Plant plant = expiries.poll(growthTicks); plant != null; plant = expiries.poll(growthTicks)) {
+            if(plant.isAlive() && plant.isExpired()) {
+                plant.wither(nextFieldState);
+            }
+        }
+    }
 
-        reportStats();
-        view.showStatus(step, field);
+    /**
+     * Schedule a plant of this simulation to be looked at when it
+     * expires.
+     * @param plant The plant.
+     * @param tick The growth tick at which it expires.
+     */
+    void scheduleExpiry(Plant plant, int tick)
+    {
+        Location location = plant.getLocation();
+        expiries.add(plant, tick, location.row() * field.getWidth() + location.col());
+    }
+
+    /**
+     * Return the number of bytes allocated on the heap by the most
+     * recent call to simulateOneStep, excluding reporting and display.
+     * @return The bytes allocated by the last step, or -1 if the JVM
+     *         does not support measuring thread allocation.
+     */
+    public long getStepAllocation()
+    {
+        return stepAllocation;
     }
 
     /**
@@ -148,10 +519,69 @@ public class Simulator
     public void reset()
     {
         step = 0;
-        populate();
-        view.showStatus(step, field);
+        growthTicks = 0;
+        expiries.clear();
+        nextField.clear();
+        if(animalStores != null) {
+            for(AnimalStore store : animalStores) {
+                if(store != null) {
+                    store.clear();
+                }
+            }
+        }
+        Random previous = bindRandom();
+        try {
+            populate();
+            runSeed = Randomizer.getRandom().nextLong();
+        }
+        finally {
+            unbindRandom(previous);
+        }
         timeOfDay = "daytime";
         weather = Weather.sunny;
+        notifyObservers();
+    }
+
+    /**
+     * Bind the simulator's own generator, if it has one, to the
+     * current thread.
+     * @return The generator bound before, to be restored afterwards.
+     */
+    private Random bindRandom()
+    {
+        return random == null ? null : Randomizer.bind(random);
+    }
+
+    /**
+     * Restore the generator bound before bindRandom was called.
+     * @param previous The generator returned by bindRandom.
+     */
+    private void unbindRandom(Random previous)
+    {
+        if(random != null) {
+            Randomizer.bind(previous);
+        }
+    }
+
+    /**
+     * Return what changed in the field during the last step. The
+     * changes are only worked out while the simulator has an observer
+     * that wants them; otherwise they are empty.
+     * @return The changes, which are replaced by the next step.
+     */
+    public FieldChanges getChanges()
+    {
+        return changes;
+    }
+
+    /**
+     * Tell every observer about the whole current state.
+     */
+    private void notifyObservers()
+    {
+        for(SimulatorObserver observer : observers) {
+            observer.showStatus(step, field);
+        }
     }
 
     /**
@@ -163,43 +593,43 @@ public class Simulator
         field.clear();
         for(int row = 0; row < field.getDepth(); row++) {
             for(int col = 0; col < field.getWidth(); col++) {
-                if(rand.nextDouble() <= CROCODILE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                if(rand.nextDouble() <= parameters.getCreationProbability(Species.CROCODILE)) {
+                    Location location = field.getLocation(row, col);
                     Crocodile crocodile = new Crocodile(true, location, this);
                     field.placeBeing(crocodile, location);
                 }
-                else if(rand.nextDouble() <= BIRD_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.BIRD)) {
+                    Location location = field.getLocation(row, col);
                     Bird bird = new Bird(true, location, this);
                     field.placeBeing(bird, location);
                 }
-                else if(rand.nextDouble() <= SNAKE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.SNAKE)) {
+                    Location location = field.getLocation(row, col);
                     Snake snake = new Snake(true, location, this);
                     field.placeBeing(snake, location);
                 }
-                else if(rand.nextDouble() <= FISH_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.FISH)) {
+                    Location location = field.getLocation(row, col);
                     Fish fish = new Fish(true, location, this);
                     field.placeBeing(fish, location);
                 }
-                else if(rand.nextDouble() <= LIZARD_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.LIZARD)) {
+                    Location location = field.getLocation(row, col);
                     Lizard lizard = new Lizard(true, location, this);
                     field.placeBeing(lizard, location);
                 }
-                else if(rand.nextDouble() <= FRUIT_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.FRUIT)) {
+                    Location location = field.getLocation(row, col);
                     Fruit fruit = new Fruit(true, location, this, false);
                     field.placeBeing(fruit, location);
                 }
-                else if(rand.nextDouble() <= ALGAE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.ALGAE)) {
+                    Location location = field.getLocation(row, col);
                     Algae algae = new Algae(true, location, this, false);
                     field.placeBeing(algae, location);
                 }
-                else if(rand.nextDouble() <= LEAF_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
+                else if(rand.nextDouble() <= parameters.getCreationProbability(Species.LEAF)) {
+                    Location location = field.getLocation(row, col);
                     Leaf leaf = new Leaf(true, location, this, false);
                     field.placeBeing(leaf, location);
                 }
@@ -208,6 +638,35 @@ public class Simulator
         }
     }
 
+    /**
+     * Return the store for the state of an animal's species.
+     * @param animal A newly created animal.
+     * @return The store for its species, or null if animals hold
+     *         their own state.
+     */
+    AnimalStore getAnimalStore(Animal animal)
+    {
+        if(animalStores == null) {
+            return null;
+        }
+        int species = animal.getSpecies().ordinal();
+        if(animalStores[species] == null) {
+            animalStores[species] = new AnimalStore(animal.getMaxAge(), field.getWidth());
+        }
+        return animalStores[species];
+    }
+
+    /**
+     * Return the store for the state of a species, if there is one.
+     * @param species An animal species.
+     * @return The species' store, or null if animals hold their own
+     *         state or no animal of the species has been created.
+     */
+    AnimalStore getAnimalStore(Species species)
+    {
+        return animalStores == null ? null : animalStores[species.ordinal()];
+    }
+
     /**
      * Report on the number of each type of being in the field.
      */
@@ -218,17 +677,49 @@ public class Simulator
     }
 
     /**
-     * Pause for a given time.
-     * @param milliseconds The time to pause for, in milliseconds
+     * Return the total number of bytes allocated so far by the current thread.
+     * @return The allocated bytes, or -1 if this cannot be measured.
      */
-    private void delay(int milliseconds)
+    static long allocatedBytes()
     {
-        try {
-            Thread.sleep(milliseconds);
+        if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+           && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Run a headless simulation as fast as possible and report how fast
+     * it ran, the mean fraction of tiles skipped per step if it ran on
+     * more than one thread, and the population of every species.
+     * @param args Optional depth, width, number of steps and number
+     *        of threads.
+     */
+    public static void main(String[] args)
+    {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_WIDTH;
+        int numSteps = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        Simulator simulator = createHeadless(depth, width, false);
+        simulator.setThreads(threads);
+        // The steps are run here rather than by simulate, so that the
+        // skipped tiles can be added up without an observer.
+        double skipped = 0;
+        long start = System.nanoTime();
+        for(int n = 1; n <= numSteps && simulator.isViable(); n++) {
+            simulator.simulateOneStep();
+            skipped += simulator.getSkippedTileFraction();
         }
-        catch(InterruptedException e) {
-            // ignore
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d steps in %.2f s (%.1f steps/s)%n",
+                          simulator.step, seconds, simulator.step / seconds);
+        if(threads > 1) {
+            System.out.printf("%.1f%% of tiles skipped per step%n", 100 * skipped / Math.max(simulator.step, 1));
         }
+        simulator.reportStats();
+        simulator.setThreads(1);
     }
 
     /**
@@ -244,6 +735,41 @@ public class Simulator
         }
     }
     
+    /**
+     * Return whether plants grow this step, which they only do on
+     * sunny days.
+     * @return true if it is daytime and sunny.
+     */
+    public boolean isGrowingWeather()
+    {
+        return timeOfDay.equals("daytime") && weather == Weather.sunny;
+    }
+
+    /**
+     * Return whether an animal species is in its inactive phase, in
+     * which its animals stay where they are.
+     * @param species A species.
+     * @return true if the species is an animal that rests at this time
+     *         of day.
+     */
+    public boolean isResting(Species species)
+    {
+        return species.isAnimal() && species.isNocturnal() == timeOfDay.equals("daytime");
+    }
+
+    /**
+     * Return the fraction of tiles the parallel engine skipped in the
+     * last step. The statistic only exists for the engine: on one
+     * thread without intents the field is not cut into tiles, and the
+     * beings in the field's list act in turn, so there is nothing to
+     * skip.
+     * @return The fraction, or 0 if steps are not run by the engine.
+     */
+    public double getSkippedTileFraction()
+    {
+        return engine == null ? 0 : engine.getSkippedFraction();
+    }
+
     /**
      * Get the current weather condition in the simulation.
      * @return The current weather as a string (e.g., "sunny", "rainy", "foggy"). Returns an empty string if the value is null.
@@ -0,0 +1,42 @@
+/**
+ * Something that is told about the state of a simulation after it
+ * has been reset and after every step, such as a graphical view or
+ * a console report. A simulator may have any number of observers,
+ * including none. After a step, an observer is also told what changed,
+ * so that it can update what it shows rather than show it all again.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public interface SimulatorObserver
+{
+    /**
+     * Show the current status of the field.
+     * @param step Which iteration step it is.
+     * @param field The field whose status is to be shown.
+     */
+    void showStatus(int step, Field field);
+
+    /**
+     * Show the status of the field after a step, given what changed in
+     * it during the step. By default the whole field is shown again.
+     * @param step Which iteration step it is.
+     * @param field The field whose status is to be shown.
+     * @param changes What changed in the field during the step.
+     */
+    default void showChanges(int step, Field field, FieldChanges changes)
+    {
+        showStatus(step, field);
+    }
+
+    /**
+     * Return whether the observer reads the changes given to
+     * showChanges. A simulator only works out what changed in a step
+     * if one of its observers does; otherwise the changes are empty.
+     * @return true if the changes are read. By default they are not.
+     */
+    default boolean wantsChanges()
+    {
+        return false;
+    }
+}
@@ -1,7 +1,13 @@
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import javax.swing.*;
+import java.util.Hashtable;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A graphical view of the simulation grid.
@@ -9,17 +15,37 @@ import java.util.Map;
  * representing its contents. It uses a default background color.
  * Colors for each type of species can be defined using the
  * setColor method.
+ *
+ * The simulation thread does not draw. After each step it brings a
+ * FieldMipmap of the field up to date from the step's changes and
+ * publishes a small snapshot of the labels. A timer on the Swing event
+ * thread draws at most MAX_FRAME_RATE times a second, copying only the
+ * visible part of the field from the mipmap. A snapshot replaced
+ * before it is drawn is dropped, so a slow display never holds up the
+ * simulation.
+ *
+ * The field can be zoomed with the mouse wheel and panned by dragging;
+ * a double click shows the whole field again. When zoomed out, each
+ * pixel shows the dominant content of a block of cells, so the cost of
+ * a frame depends on the size of the window rather than the field.
  * 
  * @author David J. Barnes, Michael Kölling, Jawhara Jannah, Fatimah Khan
  * @version 8.0
  */
-public class SimulatorView extends JFrame
+public class SimulatorView extends JFrame implements SimulatorObserver
 {
+    private static final long serialVersionUID = 1L;
+
     // Colors used for empty locations.
     private static final Color EMPTY_COLOR = Color.white;
 
     // Color used for objects that have no defined color.
     private static final Color UNKNOWN_COLOR = Color.gray;
+    // The most frames drawn per second.
+    private static final int MAX_FRAME_RATE = 30;
+    // The highest step rate the speed control sets; one notch above it
+    // runs the simulation as fast as possible.
+    private static final int MAX_STEP_RATE = 60;
 
     private final String STEP_PREFIX = "Step: ";                    
     private final String POPULATION_PREFIX = "Population: "; 
@@ -35,8 +61,12 @@ public class SimulatorView extends JFrame
                                         + "Leaf = yellow</html>";
     private final String TIME_PREFIX = "Time of day: ";             
     private final String WEATHER_PREFIX = "Current weather: ";     
+    private final String FRAME_PREFIX = "    Frame: ";
+    private final String SPEED_PREFIX = "    Speed: ";
+    private final String OVERRUN_PREFIX = " steps/s, overrun ";
     
     private final JLabel stepLabel;
+    private final JSlider speed;
     private final JLabel population;
     private final JLabel key;
     private final JLabel data;
@@ -45,11 +75,28 @@ public class SimulatorView extends JFrame
     
     // A map for storing colors for participants in the simulation
     private final Map<Class<?>, Color> colors;
+    // The RGB value drawn for each cell content: index 0 for an empty
+    // cell, and the species' ordinal plus one for a being.
+    private final int[] palette;
+    // Set when the palette changes, so that every cell is drawn again.
+    private volatile boolean paletteChanged;
     // A statistics object computing and storing simulation information
     private final FieldStats stats;
     // 
     private Simulator simulator;
 
+    // The content of the field at every zoom, written by the
+    // simulation thread and read by the event thread.
+    private final FieldMipmap mipmap;
+    // The latest snapshot not yet drawn, and a drawn one to be reused.
+    private final AtomicReference<Frame> latest = new AtomicReference<>();
+    private final AtomicReference<Frame> spare = new AtomicReference<>();
+
+    // The timer that draws the latest snapshot.
+    private final Timer renderTimer;
+    // The time taken to draw the last frame, in nanoseconds.
+    private volatile long frameTime;
+
     /**
      * Create a view of the given width and height.
      * @param height The simulation's height.
@@ -59,6 +106,8 @@ public class SimulatorView extends JFrame
     {
         stats = new FieldStats();
         colors = new LinkedHashMap<>();
+        palette = new int[Species.values().length + 1];
+        mipmap = new FieldMipmap(height, width);
         
         setColor(Crocodile.class, Color.green);
         setColor(Snake.class, Color.pink);
@@ -84,7 +133,11 @@ public class SimulatorView extends JFrame
 
         Container contents = getContentPane();
         
-        contents.add(stepLabel, BorderLayout.NORTH);
+        speed = createSpeedControl();
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(stepLabel, BorderLayout.CENTER);
+        top.add(speed, BorderLayout.SOUTH);
+        contents.add(top, BorderLayout.NORTH);
         contents.add(key, BorderLayout.EAST);
         contents.add(fieldView, BorderLayout.CENTER);
         contents.add(population, BorderLayout.SOUTH);
@@ -92,8 +145,35 @@ public class SimulatorView extends JFrame
         
         pack();
         setVisible(true);
+
+        renderTimer = new Timer(1000 / MAX_FRAME_RATE, e -> render());
+        renderTimer.start();
     }
     
+    /**
+     * Create the slider that sets the simulator's step rate. Its last
+     * notch runs the simulation as fast as possible.
+     * @return The slider.
+     */
+    private JSlider createSpeedControl()
+    {
+        double target = simulator.getPacer().getTargetRate();
+        int value = target == 0 ? MAX_STEP_RATE + 1 : (int) Math.max(1, Math.min(MAX_STEP_RATE, Math.round(target)));
+        JSlider slider = new JSlider(1, MAX_STEP_RATE + 1, value);
+        Hashtable<Integer, JLabel> labels = new Hashtable<>();
+        labels.put(1, new JLabel("1"));
+        labels.put(MAX_STEP_RATE / 2, new JLabel(String.valueOf(MAX_STEP_RATE / 2)));
+        labels.put(MAX_STEP_RATE, new JLabel(String.valueOf(MAX_STEP_RATE)));
+        labels.put(MAX_STEP_RATE + 1, new JLabel("max"));
+        slider.setLabelTable(labels);
+        slider.setPaintLabels(true);
+        slider.addChangeListener(e -> {
+            int rate = slider.getValue();
+            simulator.setStepRate(rate > MAX_STEP_RATE ? 0 : rate);
+        });
+        return slider;
+    }
+
     /**
      * Define a color to be used for a given class of animal.
      * @param animalClass The animal's Class object.
@@ -102,6 +182,11 @@ public class SimulatorView extends JFrame
     public void setColor(Class<?> animalClass, Color color)
     {
         colors.put(animalClass, color);
+        palette[0] = EMPTY_COLOR.getRGB();
+        for(Species species : Species.values()) {
+            palette[species.ordinal() + 1] = getColor(species.getBeingClass()).getRGB();
+        }
+        paletteChanged = true;
     }
 
     /**
@@ -124,38 +209,112 @@ public class SimulatorView extends JFrame
      * @param step Which iteration step it is.
      * @param field The field whose status is to be displayed.
      */
+    @Override
     public void showStatus(int step, Field field)
     {
-        if(!isVisible()) {
+        mipmap.setAll(field);
+        publish(step, field);
+    }
+
+    /**
+     * Show the status of the field after a step, updating only the
+     * cells that changed.
+     * @param step Which iteration step it is.
+     * @param field The field whose status is to be displayed.
+     * @param changes What changed in the field during the step.
+     */
+    @Override
+    public void showChanges(int step, Field field, FieldChanges changes)
+    {
+        mipmap.apply(field, changes);
+        publish(step, field);
+    }
+
+    /**
+     * @return true, as the view is updated from each step's changes.
+     */
+    @Override
+    public boolean wantsChanges()
+    {
+        return true;
+    }
+
+    /**
+     * Publish a snapshot of the field for the event thread to draw,
+     * replacing any snapshot it has not drawn yet.
+     * @param step Which iteration step it is.
+     * @param field The field whose status is to be displayed.
+     */
+    private void publish(int step, Field field)
+    {
+        Frame frame = spare.getAndSet(null);
+        if(frame == null) {
+            frame = new Frame();
+        }
+        frame.step = step;
+        for(Species species : Species.values()) {
+            frame.populations[species.ordinal()] = field.getPopulation(species);
+            frame.infections[species.ordinal()] = field.getInfections(species);
+        }
+        StepPacer pacer = simulator.getPacer();
+        frame.targetRate = pacer.getTargetRate();
+        frame.achievedRate = pacer.getAchievedRate();
+        frame.overrun = pacer.getLastOverrun();
+        frame.timeOfDay = simulator.getTimeOfDay();
+        frame.weather = simulator.getWeather();
+        Frame dropped = latest.getAndSet(frame);
+        if(dropped != null) {
+            spare.set(dropped);
+        }
+    }
+
+    /**
+     * Draw the field if it changed or the viewport moved, and show the
+     * labels of the latest snapshot if there is a new one. This runs on
+     * the event thread.
+     */
+    private void render()
+    {
+        Frame frame = latest.getAndSet(null);
+        if(frame != null && !isVisible()) {
             setVisible(true);
         }
-            
-        stepLabel.setText(STEP_PREFIX + step);
-        stats.reset();
-        
-        fieldView.preparePaint();
-
-        for(int row = 0; row < field.getDepth(); row++) {
-            for(int col = 0; col < field.getWidth(); col++) {
-                Object animal = field.getBeingAt(new Location(row, col));
-                if(animal != null) {
-                    stats.incrementCount(animal.getClass());
-                    if (animal instanceof Animal && ((Animal) animal).isInfected()) {
-                    stats.incrementInfectionCount(animal.getClass());
-                    }
-                    fieldView.drawMark(col, row, getColor(animal.getClass()));
-                }
-                else {
-                    fieldView.drawMark(col, row, EMPTY_COLOR);
-                }
-            }
+        boolean redrawAll = paletteChanged;
+        paletteChanged = false;
+        long start = System.nanoTime();
+        if(fieldView.refresh(frame != null, redrawAll)) {
+            frameTime = System.nanoTime() - start;
+        }
+        if(frame == null) {
+            return;
         }
-        stats.countFinished();
 
-        population.setText("<html>" + POPULATION_PREFIX + stats.getPopulationDetails(field) + "<br>" + INFECTION_PREFIX + stats.getInfectionDetails(field));
-        data.setText("<html>" + TIME_PREFIX + simulator.getTimeOfDay() + "<br>"  + WEATHER_PREFIX + simulator.getWeather());
-        
-        fieldView.repaint();
+        stats.count(frame.populations, frame.infections);
+        stepLabel.setText(STEP_PREFIX + frame.step + FRAME_PREFIX + String.format("%.2f ms", frameTime / 1e6)
+                          + SPEED_PREFIX + String.format("%.1f", frame.achievedRate)
+                          + (frame.targetRate == 0 ? " (max)" : String.format(" of %.0f", frame.targetRate))
+                          + OVERRUN_PREFIX + String.format("%.1f ms", frame.overrun / 1e6));
+        population.setText("<html>" + POPULATION_PREFIX + stats.getPopulationDetails() + "<br>" + INFECTION_PREFIX + stats.getInfectionDetails());
+        data.setText("<html>" + TIME_PREFIX + frame.timeOfDay + "<br>"  + WEATHER_PREFIX + frame.weather);
+        spare.set(frame);
+    }
+
+    /**
+     * @return The time taken to draw the last frame, in nanoseconds.
+     */
+    public long getFrameTime()
+    {
+        return frameTime;
+    }
+
+    /**
+     * Stop drawing and close the window.
+     */
+    @Override
+    public void dispose()
+    {
+        renderTimer.stop();
+        super.dispose();
     }
 
     /**
@@ -168,6 +327,27 @@ public class SimulatorView extends JFrame
         return stats.isViable(field);
     }
     
+    /**
+     * A snapshot of the labels after a step: the population counts,
+     * the time of day, the weather and the simulator's pacing. It is not
+     * changed between being published and being drawn; after that it
+     * is handed back to be reused.
+     */
+    private static class Frame
+    {
+        private int step;
+        // The population and infections of each species, by ordinal.
+        private final int[] populations = new int[Species.values().length];
+        private final int[] infections = new int[Species.values().length];
+        private String timeOfDay;
+        private String weather;
+        // The simulator's pacing: its target and achieved step rates,
+        // and how late the last step was in nanoseconds.
+        private double targetRate;
+        private double achievedRate;
+        private long overrun;
+    }
+
     /**
      * Provide a graphical view of a rectangular field. This is 
      * a nested class (a class defined inside a class) which
@@ -178,13 +358,38 @@ public class SimulatorView extends JFrame
      */
     private class FieldView extends JPanel
     {
+        private static final long serialVersionUID = 1L;
+
         private final int GRID_VIEW_SCALING_FACTOR = 6;
+        // The largest size the component asks for, in pixels.
+        private final int MAX_PREFERRED_SIZE = 800;
+        // The most pixels a cell is drawn with when zoomed in.
+        private final double MAX_SCALE = 64;
+        // The change in zoom for one notch of the mouse wheel.
+        private final double ZOOM_STEP = 1.25;
 
         private final int gridWidth, gridHeight;
-        private int xScale, yScale;
-        Dimension size;
-        private Graphics g;
-        private Image fieldImage;
+
+        // The viewport: the number of pixels per cell, or 0 to fit the
+        // whole field, and the cell coordinates at the top left corner.
+        private double scale;
+        private double originX, originY;
+        // Set when the viewport moves, so that the field is drawn again.
+        private boolean viewportChanged = true;
+        // Where the mouse was when the last drag event was handled.
+        private Point dragPoint;
+        // The size of the component when the field was last drawn.
+        private Dimension shownSize = new Dimension();
+
+        // The block of texels last drawn: its mipmap level, its first
+        // row and column, and its size.
+        private int shownLevel = -1, shownRow, shownCol, shownRows, shownCols;
+        // The codes last drawn, and a buffer the next are copied into.
+        private byte[] shown = new byte[0];
+        private byte[] copied = new byte[0];
+        // The image of the block of texels, one pixel per texel.
+        private BufferedImage fieldImage;
+        private int[] pixels;
 
         /**
          * Create a new FieldView component.
@@ -193,7 +398,30 @@ public class SimulatorView extends JFrame
         {
             gridHeight = height;
             gridWidth = width;
-            size = new Dimension(0, 0);
+            addMouseWheelListener(e -> zoom(e.getPoint(), Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation())));
+            MouseAdapter mouse = new MouseAdapter()
+            {
+                public void mousePressed(MouseEvent e)
+                {
+                    dragPoint = e.getPoint();
+                }
+
+                public void mouseDragged(MouseEvent e)
+                {
+                    pan(e.getX() - dragPoint.x, e.getY() - dragPoint.y);
+                    dragPoint = e.getPoint();
+                }
+
+                public void mouseClicked(MouseEvent e)
+                {
+                    if(e.getClickCount() == 2) {
+                        scale = 0;
+                        viewportChanged = true;
+                    }
+                }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
         }
 
         /**
@@ -201,56 +429,189 @@ public class SimulatorView extends JFrame
          */
         public Dimension getPreferredSize()
         {
-            return new Dimension(gridWidth * GRID_VIEW_SCALING_FACTOR,
-                                 gridHeight * GRID_VIEW_SCALING_FACTOR);
+            double cellSize = Math.min(GRID_VIEW_SCALING_FACTOR,
+                                       (double) MAX_PREFERRED_SIZE / Math.max(gridWidth, gridHeight));
+            return new Dimension((int) Math.ceil(gridWidth * cellSize),
+                                 (int) Math.ceil(gridHeight * cellSize));
         }
 
         /**
-         * Prepare for a new round of painting. Since the component
-         * may be resized, compute the scaling factor again.
+         * Zoom in or out, keeping the cell under a point of the
+         * component in place.
+         * @param point The point.
+         * @param factor The change in the number of pixels per cell.
          */
-        public void preparePaint()
+        private void zoom(Point point, double factor)
         {
-            if(! size.equals(getSize())) {  // if the size has changed...
-                size = getSize();
-                fieldImage = fieldView.createImage(size.width, size.height);
-                g = fieldImage.getGraphics();
-
-                xScale = size.width / gridWidth;
-                if(xScale < 1) {
-                    xScale = GRID_VIEW_SCALING_FACTOR;
-                }
-                yScale = size.height / gridHeight;
-                if(yScale < 1) {
-                    yScale = GRID_VIEW_SCALING_FACTOR;
+            if(scale == 0) {
+                return;
+            }
+            double newScale = Math.max(fitScale() / 2, Math.min(MAX_SCALE, scale * factor));
+            originX += point.x / scale - point.x / newScale;
+            originY += point.y / scale - point.y / newScale;
+            scale = newScale;
+            clampOrigin();
+            viewportChanged = true;
+        }
+
+        /**
+         * Move the viewport.
+         * @param dx The distance to move the field right, in pixels.
+         * @param dy The distance to move the field down, in pixels.
+         */
+        private void pan(int dx, int dy)
+        {
+            if(scale == 0) {
+                return;
+            }
+            originX -= dx / scale;
+            originY -= dy / scale;
+            clampOrigin();
+            viewportChanged = true;
+        }
+
+        /**
+         * Keep at least half the viewport over the field.
+         */
+        private void clampOrigin()
+        {
+            double visibleWidth = getWidth() / scale;
+            double visibleHeight = getHeight() / scale;
+            originX = Math.max(-visibleWidth / 2, Math.min(gridWidth - visibleWidth / 2, originX));
+            originY = Math.max(-visibleHeight / 2, Math.min(gridHeight - visibleHeight / 2, originY));
+        }
+
+        /**
+         * @return The number of pixels per cell that fits the whole
+         *         field in the component.
+         */
+        private double fitScale()
+        {
+            return Math.min((double) getWidth() / gridWidth, (double) getHeight() / gridHeight);
+        }
+
+        /**
+         * Bring the image of the visible part of the field up to date.
+         * The mipmap level is the finest whose texels are at least a
+         * pixel wide. If the same block of texels is visible as before,
+         * only the texels whose codes changed are written, and only the
+         * part of the component covering them is repainted.
+         * @param fieldChanged Whether the field changed since the last call.
+         * @param redrawAll Whether every texel must be written again.
+         * @return Whether anything was drawn.
+         */
+        public boolean refresh(boolean fieldChanged, boolean redrawAll)
+        {
+            if(getWidth() == 0 || getHeight() == 0) {
+                return false;
+            }
+            if(scale == 0) {
+                scale = fitScale();
+                originX = originY = 0;
+                viewportChanged = true;
+            }
+            if(!shownSize.equals(getSize())) {
+                shownSize = getSize();
+                viewportChanged = true;
+            }
+            if(!fieldChanged && !viewportChanged && !redrawAll) {
+                return false;
+            }
+
+            int level = 0;
+            while(level + 1 < mipmap.getLevels() && scale * (1 << level) < 1) {
+                level++;
+            }
+            int texelSize = 1 << level;
+            int firstCol = Math.max(0, (int) Math.floor(originX / texelSize));
+            int firstRow = Math.max(0, (int) Math.floor(originY / texelSize));
+            int lastCol = Math.min(mipmap.getWidth(level) - 1,
+                                   (int) Math.floor((originX + getWidth() / scale) / texelSize));
+            int lastRow = Math.min(mipmap.getHeight(level) - 1,
+                                   (int) Math.floor((originY + getHeight() / scale) / texelSize));
+            int cols = Math.max(0, lastCol - firstCol + 1);
+            int rows = Math.max(0, lastRow - firstRow + 1);
+            if(copied.length < rows * cols) {
+                copied = new byte[rows * cols];
+            }
+            mipmap.copy(level, firstRow, firstCol, rows, cols, copied);
+
+            boolean sameBlock = level == shownLevel && firstRow == shownRow && firstCol == shownCol
+                                && rows == shownRows && cols == shownCols;
+            if(!sameBlock) {
+                fieldImage = rows * cols == 0 ? null : new BufferedImage(cols, rows, BufferedImage.TYPE_INT_RGB);
+                pixels = fieldImage == null ? null : ((DataBufferInt) fieldImage.getRaster().getDataBuffer()).getData();
+            }
+            int dirtyFirstRow = Integer.MAX_VALUE, dirtyLastRow = -1;
+            int dirtyFirstCol = Integer.MAX_VALUE, dirtyLastCol = -1;
+            for(int row = 0; row < rows; row++) {
+                for(int col = 0, i = row * cols; col < cols; col++, i++) {
+                    byte code = copied[i];
+                    if(!sameBlock || redrawAll || code != shown[i]) {
+                        pixels[i] = palette[code];
+                        dirtyFirstRow = Math.min(dirtyFirstRow, row);
+                        dirtyLastRow = row;
+                        dirtyFirstCol = Math.min(dirtyFirstCol, col);
+                        dirtyLastCol = Math.max(dirtyLastCol, col);
+                    }
                 }
             }
+            byte[] drawn = shown;
+            shown = copied;
+            copied = drawn;
+            shownLevel = level;
+            shownRow = firstRow;
+            shownCol = firstCol;
+            shownRows = rows;
+            shownCols = cols;
+
+            if(!sameBlock || viewportChanged) {
+                viewportChanged = false;
+                repaint();
+            }
+            else if(dirtyLastRow >= 0) {
+                // Round outwards, so that every pixel of a texel is covered.
+                int x = (int) Math.floor(screenX(firstCol + dirtyFirstCol));
+                int y = (int) Math.floor(screenY(firstRow + dirtyFirstRow));
+                int right = (int) Math.ceil(screenX(firstCol + dirtyLastCol + 1));
+                int bottom = (int) Math.ceil(screenY(firstRow + dirtyLastRow + 1));
+                repaint(x, y, right - x, bottom - y);
+            }
+            return true;
         }
-        
+
         /**
-         * Paint on grid location on this field in a given color.
+         * @return The x coordinate in the component of the left edge of
+         *         a column of texels at the level last drawn.
          */
-        public void drawMark(int x, int y, Color color)
+        private double screenX(int texelCol)
         {
-            g.setColor(color);
-            g.fillRect(x * xScale, y * yScale, xScale-1, yScale-1);
+            return ((double) texelCol * (1 << shownLevel) - originX) * scale;
         }
 
         /**
-         * The field view component needs to be redisplayed. Copy the
-         * internal image to screen.
+         * @return The y coordinate in the component of the top edge of
+         *         a row of texels at the level last drawn.
+         */
+        private double screenY(int texelRow)
+        {
+            return ((double) texelRow * (1 << shownLevel) - originY) * scale;
+        }
+
+        /**
+         * The field view component needs to be redisplayed. Clear the
+         * area outside the field and copy the image of the visible
+         * texels to screen, scaled to the viewport.
          */
         public void paintComponent(Graphics g)
         {
+            g.setColor(UNKNOWN_COLOR);
+            g.fillRect(0, 0, getWidth(), getHeight());
             if(fieldImage != null) {
-                Dimension currentSize = getSize();
-                if(size.equals(currentSize)) {
-                    g.drawImage(fieldImage, 0, 0, null);
-                }
-                else {
-                    // Rescale the previous image.
-                    g.drawImage(fieldImage, 0, 0, currentSize.width, currentSize.height, null);
-                }
+                g.drawImage(fieldImage,
+                            (int) Math.round(screenX(shownCol)), (int) Math.round(screenY(shownRow)),
+                            (int) Math.round(screenX(shownCol + shownCols)), (int) Math.round(screenY(shownRow + shownRows)),
+                            0, 0, shownCols, shownRows, null);
             }
         }
     }
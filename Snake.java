@@ -1,5 +1,3 @@
-import java.util.List;
-import java.util.Iterator;
 import java.util.Random;
 
 /**
@@ -11,27 +9,21 @@ import java.util.Random;
  */
 public class Snake extends Animal
 {
-    // Characteristics shared by all snakes (class variables).
+    // The default characteristics of snakes (class variables). A
+    // simulation can override them through its SimulationParameters.
 
     // The age at which a snakes can start to breed.
-    private static final int BREEDING_AGE = 3;
+    static final int BREEDING_AGE = 3;
     // The age to which a snakes can live.
-    private static final int MAX_AGE = 100;
+    static final int MAX_AGE = 100;
     // The likelihood of a snakes breeding.
-    private static final double BREEDING_PROBABILITY = 0.95;
+    static final double BREEDING_PROBABILITY = 0.95;
     // The maximum number of births.
-    private static final int MAX_LITTER_SIZE = 10;
+    static final int MAX_LITTER_SIZE = 10;
     // The food value of a single prey. In effect, this is the
     // number of steps a snake can go before it has to eat again.
-    private static final int BIRD_FOOD_VALUE = 80;
-    private static final int LIZARD_FOOD_VALUE = 60;    
-
-    // A shared random number generator to control breeding.
-    private static final Random rand = Randomizer.getRandom();
-
-    // Individual characteristics (instance fields).
-    // The snakes'age.
-    private int age;
+    static final int BIRD_FOOD_VALUE = 80;
+    static final int LIZARD_FOOD_VALUE = 60;    
 
     /**
      * Create a snake. A snake can be created as a new born (age zero
@@ -44,13 +36,14 @@ public class Snake extends Animal
     public Snake(boolean randomAge, Location location, Simulator simulator)
     {
         super(location, simulator);
+        Random rand = Randomizer.getRandom();
         if(randomAge) {
-            age = rand.nextInt(MAX_AGE);
+            setAge(rand.nextInt(getParameters().getMaxAge(getSpecies())));
         }
         else {
-            age = 0;
+            setAge(0);
         }
-        foodLevel = rand.nextInt(Math.max(BIRD_FOOD_VALUE,LIZARD_FOOD_VALUE));
+        setFoodLevel(rand.nextInt(getParameters().getMaxFoodValue(getSpecies())));
     }
 
     /**
@@ -63,11 +56,9 @@ public class Snake extends Animal
      */
     public void act(Field currentField, Field nextFieldState)
     {
-        incrementAge();
-        incrementHunger();
+        growOlder();
         if(isAlive()) {
-            List<Location> freeLocations =
-                nextFieldState.getFreeAdjacentLocations(getLocation());
+            Neighbourhood freeLocations = freeAdjacent(nextFieldState);
             if (simulator.getTimeOfDay().equals("daytime")){
                 if(!freeLocations.isEmpty() ) {
                     giveBirth(nextFieldState, freeLocations);
@@ -76,7 +67,7 @@ public class Snake extends Animal
                 Location nextLocation = findFood(currentField);
                 if(nextLocation == null && ! freeLocations.isEmpty() ) {
                     // No food found - try to move to a free location.
-                    nextLocation = freeLocations.remove(0);
+                    nextLocation = nextFieldState.getLocation(freeLocations.next());
                 }
                 // See if it was possible to move.
                 if(nextLocation != null ) {
@@ -100,26 +91,26 @@ public class Snake extends Animal
         }
     }
 
+    @Override
+    protected int getMaxAge() {
+        return getParameters().getMaxAge(getSpecies());
+    }
+
+    @Override
+    public Species getSpecies() {
+        return Species.SNAKE;
+    }
+
     @Override
     public String toString() {
         return "snake{" +
-        "age=" + age +
+        "age=" + getAge() +
         ", alive=" + isAlive() +
         ", location=" + getLocation() +
-        ", foodLevel=" + foodLevel +
+        ", foodLevel=" + getFoodLevel() +
         '}';
     }
 
-    /**
-     * Increase the age. This could result in the snake's death.
-     */
-    private void incrementAge()
-    {
-        if(++age > MAX_AGE) {
-            setDead();
-        }
-    }
-
     /**
      * Look for birds and lizards adjacent to the current location.
      * Only the first live bird or lizard is eaten.
@@ -129,24 +120,23 @@ public class Snake extends Animal
      */
     private Location findFood(Field field)
     {
-        List<Location> adjacent = field.getAdjacentLocations(getLocation());
-        Iterator<Location> it = adjacent.iterator();
+        Neighbourhood adjacent = adjacent(field);
         Location foodLocation = null;
-        while(foodLocation == null && it.hasNext()) {
-            Location loc = it.next();
-            Being being = field.getBeingAt(loc);
+        while(foodLocation == null && adjacent.hasNext()) {
+            int cell = adjacent.next();
+            Being being = field.getBeingAt(cell);
             if(being instanceof Bird bird && !simulator.getWeather().equals("foggy")) {
                 if(bird.isAlive()) {
                     bird.setDead();
-                    foodLevel = BIRD_FOOD_VALUE;
-                    foodLocation = loc;
+                    setFoodLevel(getParameters().getFoodValue(getSpecies(), Species.BIRD));
+                    foodLocation = field.getLocation(cell);
                 }
             }
             if(being instanceof Lizard lizard && !simulator.getWeather().equals("foggy")) {
                 if(lizard.isAlive()) {
                     lizard.setDead();
-                    foodLevel = LIZARD_FOOD_VALUE;
-                    foodLocation = loc;
+                    setFoodLevel(getParameters().getFoodValue(getSpecies(), Species.LIZARD));
+                    foodLocation = field.getLocation(cell);
                 }
             }
         }
@@ -158,7 +148,7 @@ public class Snake extends Animal
      * New births will be made into free adjacent locations.
      * @param freeLocations The locations that are free in the current field.
      */
-    private void giveBirth(Field nextFieldState, List<Location> freeLocations)
+    private void giveBirth(Field nextFieldState, Neighbourhood freeLocations)
     {
         // New snakes are born into adjacent locations.
         // Get a list of adjacent free locations.
@@ -166,7 +156,7 @@ public class Snake extends Animal
             int births = breed(nextFieldState);
             if(births > 0) {
                 for (int b = 0; b < births && !freeLocations.isEmpty(); b++) {
-                    Location loc = freeLocations.remove(0);
+                    Location loc = nextFieldState.getLocation(freeLocations.next());
                     Snake young = new Snake(false, loc, simulator);
                     nextFieldState.placeBeing(young, loc);
                 }
@@ -182,10 +172,11 @@ public class Snake extends Animal
      */
     private int breed(Field field)
     {
+        Random rand = Randomizer.getRandom();
         int births;
         // Pass the field object to canBreed() to check for breeding conditions.
-        if (canBreed(field) && rand.nextDouble() <= BREEDING_PROBABILITY) {
-            births = rand.nextInt(MAX_LITTER_SIZE) + 1;  // Random number of births
+        if (canBreed(field) && rand.nextDouble() <= getParameters().getBreedingProbability(getSpecies())) {
+            births = rand.nextInt(getParameters().getMaxLitterSize(getSpecies())) + 1;  // Random number of births
         }
         else {
             births = 0;
@@ -200,19 +191,8 @@ public class Snake extends Animal
      */
     private boolean canBreed(Field field)
     {
-        if (this.gender == Gender.FEMALE && age >= BREEDING_AGE) {
-            List<Location> adjacentLocations = field.getAdjacentLocations(this.location);
-
-            for (Location loc : adjacentLocations) {
-                Being beingAtLocation = field.getBeingAt(loc);  
-
-                if (beingAtLocation != null && beingAtLocation instanceof Snake) {
-                    Snake male = (Snake) beingAtLocation;
-                    if (male.gender == Gender.MALE) {
-                        return true; 
-                    }
-                }
-            }
+        if (this.gender == Gender.FEMALE && getAge() >= getParameters().getBreedingAge(getSpecies())) {
+            return field.hasAdjacentMale(this.location, getSpecies());
         }
         return false;
     }
@@ -0,0 +1,63 @@
+/**
+ * The species that can live in the field. A field keeps its
+ * population counts indexed by the ordinal of each species.
+ * Nocturnal animals move, feed and breed at night and rest by day;
+ * the other animals do the opposite.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public enum Species
+{
+    CROCODILE(Crocodile.class, true),
+    BIRD(Bird.class, false),
+    SNAKE(Snake.class, false),
+    FISH(Fish.class, true),
+    LIZARD(Lizard.class, false),
+    FRUIT(Fruit.class, false),
+    ALGAE(Algae.class, false),
+    LEAF(Leaf.class, false);
+
+    // The class implementing the species.
+    private final Class<? extends Being> beingClass;
+    // Whether the species is an animal.
+    private final boolean animal;
+    // Whether the species is an animal that is active at night.
+    private final boolean nocturnal;
+
+    /**
+     * @param beingClass The class implementing the species.
+     * @param nocturnal Whether the species is active at night.
+     */
+    Species(Class<? extends Being> beingClass, boolean nocturnal)
+    {
+        this.beingClass = beingClass;
+        this.animal = Animal.class.isAssignableFrom(beingClass);
+        this.nocturnal = nocturnal;
+    }
+
+    /**
+     * @return The class implementing the species.
+     */
+    public Class<? extends Being> getBeingClass()
+    {
+        return beingClass;
+    }
+
+    /**
+     * @return true if the species is an animal, false if it is a plant.
+     */
+    public boolean isAnimal()
+    {
+        return animal;
+    }
+
+    /**
+     * @return true if the species is an animal that is active at night
+     *         and rests by day.
+     */
+    public boolean isNocturnal()
+    {
+        return nocturnal;
+    }
+}
@@ -0,0 +1,192 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a running simulation to a target number of steps per second.
+ * Each step is given a deadline one period after the last one, and the
+ * time the step took is taken from the pause before the next, so the
+ * rate does not depend on how long a step takes until a step takes
+ * longer than a period. A step that overruns its deadline is not made
+ * up for with a burst of quick steps; the next deadline is set from
+ * the time it finished. With no target the steps run as fast as they
+ * can.
+ *
+ * The target may be changed from another thread, such as a speed
+ * control in the view, while the simulation runs. A change takes
+ * effect from the end of the step in progress: the deadline worked out
+ * for the old rate is dropped, and a pause is cut short, so that
+ * speeding up does not wait out a long period of the old rate and
+ * slowing down from full speed is not reported as an overrun.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class StepPacer
+{
+    // The time over which the achieved rate is measured, in nanoseconds.
+    private static final long RATE_WINDOW = 500_000_000L;
+
+    // The target number of steps per second, or 0 for as fast as possible.
+    private volatile double targetRate;
+    // Whether the target has changed since the deadline was set.
+    private volatile boolean rateChanged;
+    // The thread pausing between steps, if any, to be woken when the
+    // target changes.
+    private volatile Thread pausedThread;
+    // When the current step should finish, in System.nanoTime terms.
+    private long deadline;
+    // How late the last step finished, in nanoseconds.
+    private volatile long lastOverrun;
+    // The start of the current rate window and the steps taken in it.
+    private long windowStart;
+    private int windowSteps;
+    // The number of steps per second over the last full window.
+    private volatile double achievedRate;
+
+    /**
+     * Create a pacer.
+     * @param targetRate The target number of steps per second, or 0
+     *                   for as fast as possible.
+     */
+    public StepPacer(double targetRate)
+    {
+        setTargetRate(targetRate);
+    }
+
+    /**
+     * Set the target number of steps per second.
+     * @param targetRate The target, or 0 for as fast as possible.
+     */
+    public void setTargetRate(double targetRate)
+    {
+        if(targetRate < 0) {
+            throw new IllegalArgumentException("Negative step rate: " + targetRate);
+        }
+        if(targetRate != this.targetRate) {
+            this.targetRate = targetRate;
+            rateChanged = true;
+            Thread paused = pausedThread;
+            if(paused != null) {
+                LockSupport.unpark(paused);
+            }
+        }
+    }
+
+    /**
+     * @return The target number of steps per second, or 0 for as fast
+     *         as possible.
+     */
+    public double getTargetRate()
+    {
+        return targetRate;
+    }
+
+    /**
+     * Start pacing a run of steps from now.
+     */
+    public void start()
+    {
+        long now = System.nanoTime();
+        windowStart = now;
+        windowSteps = 0;
+        lastOverrun = 0;
+        rateChanged = false;
+        deadline = now + period();
+    }
+
+    /**
+     * Wait until the step just taken is due to end. This is called
+     * after every step of a run.
+     */
+    public void stepTaken()
+    {
+        long finished = System.nanoTime();
+        if(rateChanged) {
+            // Pace from the end of this step at the new rate.
+            rateChanged = false;
+            deadline = finished + period();
+        }
+        long period = period();
+        if(period == 0) {
+            lastOverrun = 0;
+            deadline = finished;
+        }
+        else if(finished < deadline) {
+            lastOverrun = 0;
+            // If the target changes during the pause, pause again from
+            // the end of the step at the new rate.
+            while(!pauseUntil(deadline)) {
+                rateChanged = false;
+                period = period();
+                deadline = finished + period;
+            }
+            deadline += period;
+        }
+        else {
+            lastOverrun = finished - deadline;
+            deadline = finished + period;
+        }
+
+        windowSteps++;
+        long now = System.nanoTime();
+        if(now - windowStart >= RATE_WINDOW) {
+            achievedRate = windowSteps * 1e9 / (now - windowStart);
+            windowStart = now;
+            windowSteps = 0;
+        }
+    }
+
+    /**
+     * @return The number of steps per second over the last half
+     *         second of the run.
+     */
+    public double getAchievedRate()
+    {
+        return achievedRate;
+    }
+
+    /**
+     * @return How late the last step finished, in nanoseconds; 0 if it
+     *         finished in time.
+     */
+    public long getLastOverrun()
+    {
+        return lastOverrun;
+    }
+
+    /**
+     * @return The time per step at the target rate, in nanoseconds, or
+     *         0 for as fast as possible.
+     */
+    private long period()
+    {
+        double rate = targetRate;
+        return rate == 0 ? 0 : (long) (1e9 / rate);
+    }
+
+    /**
+     * Pause until a deadline, returning early if the thread is
+     * interrupted or the target rate changes.
+     * @param until The deadline, in System.nanoTime terms.
+     * @return false if the target rate changed before the deadline.
+     */
+    private boolean pauseUntil(long until)
+    {
+        pausedThread = Thread.currentThread();
+        try {
+            long remaining;
+            while((remaining = until - System.nanoTime()) > 0) {
+                if(rateChanged) {
+                    return false;
+                }
+                if(Thread.currentThread().isInterrupted()) {
+                    return true;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return true;
+        }
+        finally {
+            pausedThread = null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.Random;
+
+/**
+ * A counter-based random generator. Its state is a single counter that
+ * is advanced by a fixed step for every number drawn, and each number
+ * is a hash (the SplitMix64 finaliser) of the counter. Because the
+ * state is one long, a generator can be pointed at the start of any
+ * stream - identified by a seed, a step and a stream number such as a
+ * cell - in constant time, and two streams never share state.
+ *
+ * Unlike java.util.Random it does not update an AtomicLong, so it is
+ * cheaper to draw from, but it must not be shared between threads.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class StreamRandom extends Random
+{
+    private static final long serialVersionUID = 1L;
+
+    // The amount the counter is advanced by for every number drawn.
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    // A second odd constant, used to spread stream numbers apart.
+    private static final long STREAM_GAMMA = 0xD1B54A32D192ED03L;
+
+    // The counter. It is not initialised here, as Random's constructor
+    // has already set it through setSeed by the time fields are.
+    private long state;
+
+    /**
+     * Create a generator with the given seed.
+     * @param seed The seed.
+     */
+    public StreamRandom(long seed)
+    {
+        super(seed);
+    }
+
+    /**
+     * Create a generator positioned at the start of a stream.
+     * @param seed The seed of the run.
+     * @param step The step of the run.
+     * @param stream The stream within the step, e.g. a cell index.
+     */
+    public StreamRandom(long seed, long step, long stream)
+    {
+        super(0);
+        setStream(seed, step, stream);
+    }
+
+    /**
+     * Move the generator to the start of a stream. The same seed, step
+     * and stream always give the same numbers.
+     * @param seed The seed of the run.
+     * @param step The step of the run.
+     * @param stream The stream within the step, e.g. a cell index.
+     */
+    public void setStream(long seed, long step, long stream)
+    {
+        state = mix(mix(seed + step * GOLDEN_GAMMA) + stream * STREAM_GAMMA);
+    }
+
+    /**
+     * Restart the generator from a seed.
+     * @param seed The seed.
+     */
+    @Override
+    public void setSeed(long seed)
+    {
+        state = mix(seed);
+    }
+
+    @Override
+    protected int next(int bits)
+    {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong()
+    {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    @Override
+    public int nextInt()
+    {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * The SplitMix64 finaliser, which scrambles the bits of a value.
+     * @param z The value.
+     * @return The scrambled value.
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The outcome of one run of a parameter sweep: the parameter values it
+ * used, its seed, how long it stayed viable and the final population
+ * of each species. Its string form is a line of comma-separated values.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class SweepResult
+{
+    // The parameter values of the run, by name.
+    private final Map<String, Double> settings;
+    // The seed of the run.
+    private final long seed;
+    // The number of steps run before stopping.
+    private final int steps;
+    // The final population of each species, by species ordinal.
+    private final int[] populations;
+
+    /**
+     * @param settings The parameter values of the run, by name.
+     * @param seed The seed of the run.
+     * @param steps The number of steps run before stopping.
+     * @param populations The final population of each species, by
+     *        species ordinal.
+     */
+    public SweepResult(Map<String, Double> settings, long seed, int steps, int[] populations)
+    {
+        this.settings = settings;
+        this.seed = seed;
+        this.steps = steps;
+        this.populations = populations;
+    }
+
+    /**
+     * @return The parameter values of the run, by name.
+     */
+    public Map<String, Double> getSettings()
+    {
+        return settings;
+    }
+
+    /**
+     * @return The seed of the run.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return The number of steps run before the run ended.
+     */
+    public int getSteps()
+    {
+        return steps;
+    }
+
+    /**
+     * @param species A species.
+     * @return Its population when the run ended.
+     */
+    public int getPopulation(Species species)
+    {
+        return populations[species.ordinal()];
+    }
+
+    /**
+     * Return the header line for results of a sweep.
+     * @param names The names of the sweep's axes.
+     * @return The comma-separated column names.
+     */
+    public static String header(Collection<String> names)
+    {
+        StringBuilder line = new StringBuilder();
+        for(String name : names) {
+            line.append(name).append(',');
+        }
+        line.append("seed,steps");
+        for(Species species : Species.values()) {
+            line.append(',').append(species);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder line = new StringBuilder();
+        for(double value : settings.values()) {
+            line.append(value).append(',');
+        }
+        line.append(seed).append(',').append(steps);
+        for(int population : populations) {
+            line.append(',').append(population);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The simulation's side of the benchmarks' HotPaths: it builds a
+ * headless simulator at the requested size and density, a field of
+ * plants for the field queries and columns of animal state for the
+ * ageing kernels.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class SimulationPaths implements benchmarks.HotPaths
+{
+    private Simulator simulator;
+    // A field filled with plants to the requested density.
+    private Field field;
+    // The view's pyramid of pictures of the simulator's field.
+    private FieldMipmap mipmap;
+    private final Random rand = new Random(7);
+    private final Neighbourhood cursor = new Neighbourhood();
+    // Columns of animal state for the ageing kernels.
+    private int[] ages;
+    private int[] foodLevels;
+    private int[] hungers;
+
+    @Override
+    public void setUp(int depth, int width, double density, int steps, int threads)
+    {
+        // Scale every creation probability so that they add up to the
+        // requested density.
+        SimulationParameters parameters = new SimulationParameters();
+        double total = 0;
+        for(Species species : Species.values()) {
+            total += parameters.getCreationProbability(species);
+        }
+        for(Species species : Species.values()) {
+            parameters.set(species + ".CREATION_PROBABILITY",
+                           parameters.getCreationProbability(species) * density / total);
+        }
+        simulator = Simulator.createHeadless(depth, width, parameters, 1);
+        simulator.setThreads(threads);
+        for(int i = 0; i < steps && simulator.isViable(); i++) {
+            simulator.simulateOneStep();
+        }
+
+        Random fill = new Random(5);
+        field = new Field(depth, width);
+        for(int row = 0; row < depth; row++) {
+            for(int col = 0; col < width; col++) {
+                if(fill.nextDouble() < density) {
+                    Location location = field.getLocation(row, col);
+                    field.placeBeing(new Leaf(false, location, null, false), location);
+                }
+            }
+        }
+        mipmap = new FieldMipmap(depth, width);
+    }
+
+    @Override
+    public void simulateOneStep()
+    {
+        if(!simulator.isViable()) {
+            simulator.reset();
+        }
+        simulator.simulateOneStep();
+    }
+
+    @Override
+    public void populate()
+    {
+        simulator.reset();
+    }
+
+    @Override
+    public Object getAdjacentLocations()
+    {
+        return field.getAdjacentLocations(randomLocation());
+    }
+
+    @Override
+    public Object getFreeAdjacentLocations()
+    {
+        return field.getFreeAdjacentLocations(randomLocation());
+    }
+
+    @Override
+    public int freeAdjacent()
+    {
+        return field.freeAdjacent(randomLocation(), cursor).size();
+    }
+
+    @Override
+    public boolean isViable()
+    {
+        return simulator.isViable();
+    }
+
+    @Override
+    public Object rebuildMipmap()
+    {
+        mipmap.setAll(simulator.getField());
+        return mipmap;
+    }
+
+    @Override
+    public void setUpColumns(int rows)
+    {
+        ages = new int[rows];
+        foodLevels = new int[rows];
+        hungers = new int[rows];
+        Arrays.fill(foodLevels, Integer.MAX_VALUE);
+        for(int i = 0; i < rows; i++) {
+            hungers[i] = rand.nextInt(10) == 0 ? Animal.INFECTED_HUNGER : 1;
+        }
+    }
+
+    @Override
+    public int ageColumns()
+    {
+        return AnimalStore.age(ages, foodLevels, hungers, ages.length, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int ageColumnsScalar()
+    {
+        return AnimalStore.ageScalar(ages, foodLevels, hungers, ages.length, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void tearDown()
+    {
+        simulator.setThreads(1);
+    }
+
+    /**
+     * @return A random location within the field.
+     */
+    private Location randomLocation()
+    {
+        return field.getLocation(rand.nextInt(field.getDepth()), rand.nextInt(field.getWidth()));
+    }
+}
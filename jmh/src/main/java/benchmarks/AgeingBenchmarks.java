@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for ageing whole columns of animal state: the Vector
+ * API kernel, the scalar loop as the JIT compiler vectorises it, and
+ * the scalar loop with that vectorisation turned off. Scores are in
+ * rows per microsecond, so dividing one by the clock rate in MHz gives
+ * the rows done per cycle.
+ *
+ * The Vector API kernel is only built with -Pvector; without it the
+ * vector benchmark runs the scalar loop as well.
+ *
+ * The vector kernel uses the widest vectors the CPU has, so it gains
+ * most on hosts with AVX-512.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AgeingBenchmarks
+{
+    // The number of rows aged per operation.
+    private static final int ROWS = 65_536;
+
+    private HotPaths paths;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        paths = HotPaths.create();
+        paths.setUpColumns(ROWS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int vector()
+    {
+        return paths.ageColumns();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int scalar()
+    {
+        return paths.ageColumnsScalar();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    @Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector", "-XX:-UseSuperWord" })
+    public int scalarWithoutSuperWord()
+    {
+        return paths.ageColumnsScalar();
+    }
+}
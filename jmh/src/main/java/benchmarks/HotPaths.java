@@ -0,0 +1,102 @@
+package benchmarks;
+
+/**
+ * The hot paths of the simulation, as the benchmarks see them. The
+ * simulation's classes are in the unnamed package, which code in a
+ * named package - as JMH requires benchmarks to be - cannot refer to.
+ * They are reached through this interface instead, which SimulationPaths
+ * in the unnamed package implements.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public interface HotPaths
+{
+    /**
+     * Create the implementation of the hot paths.
+     * @return A new set of hot paths, not yet set up.
+     */
+    static HotPaths create()
+    {
+        try {
+            return (HotPaths) Class.forName("SimulationPaths").getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("The simulation's classes are missing", e);
+        }
+    }
+
+    /**
+     * Build a simulator and a field for the paths to run against.
+     * @param depth The depth of the field.
+     * @param width The width of the field.
+     * @param density The fraction of cells occupied at the start.
+     * @param steps The number of steps run before measuring.
+     * @param threads The number of threads a step is run on.
+     */
+    void setUp(int depth, int width, double density, int steps, int threads);
+
+    /**
+     * Run one step of the simulation, starting again if it has died out.
+     */
+    void simulateOneStep();
+
+    /**
+     * Populate the field again.
+     */
+    void populate();
+
+    /**
+     * @return The locations adjacent to a random cell.
+     */
+    Object getAdjacentLocations();
+
+    /**
+     * @return The free locations adjacent to a random cell.
+     */
+    Object getFreeAdjacentLocations();
+
+    /**
+     * @return The number of free cells adjacent to a random cell,
+     *         found through the occupancy bitmap.
+     */
+    int freeAdjacent();
+
+    /**
+     * @return Whether the simulator's field is still viable.
+     */
+    boolean isViable();
+
+    /**
+     * Build the view's pyramid of pictures of the simulator's field
+     * from every cell, as the view does when it is shown the whole
+     * field. The drawing itself happens later, on the event thread.
+     * @return The pyramid.
+     */
+    Object rebuildMipmap();
+
+    /**
+     * Build columns of animal state for the ageing kernels. No row
+     * ever gets too old or starves, however often they are aged.
+     * @param rows The number of rows.
+     */
+    void setUpColumns(int rows);
+
+    /**
+     * Age every row with the kernel the simulation uses: the Vector API
+     * one if the JVM has its module, otherwise the scalar loop.
+     * @return A negative number if any row is too old or starving.
+     */
+    int ageColumns();
+
+    /**
+     * Age every row with the scalar loop.
+     * @return A negative number if any row is too old or starving.
+     */
+    int ageColumnsScalar();
+
+    /**
+     * Release the threads of the paths.
+     */
+    void tearDown();
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for the hot paths of the simulation: a whole step,
+ * populating the field, the neighbourhood queries, the viability check
+ * and rebuilding the view's mipmap. Each is measured both as
+ * throughput and as sampled time per operation, which gives the
+ * latency percentiles. Run with -prof gc to see the allocation rate.
+ *
+ * Drawing the view is not measured: it happens on the event thread
+ * from the mipmap, and needs a display. Rebuilding the mipmap is what
+ * the view does on the simulation thread when shown the whole field.
+ *
+ * The grid size, the initial density, the number of steps run before
+ * measuring and the number of threads a step runs on are parameters,
+ * e.g. -p grid=80x120,4000x4000 -p steps=0,200 -p threads=1,4.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmarks
+{
+    // The grid size, as depth x width.
+    @Param({ "80x120", "500x500", "1000x1000", "4000x4000" })
+    private String grid;
+    // The fraction of cells occupied at the start.
+    @Param({ "0.3" })
+    private double density;
+    // The number of steps run before measuring.
+    @Param({ "0" })
+    private int steps;
+    // The number of threads a step is run on.
+    @Param({ "1" })
+    private int threads;
+
+    private HotPaths paths;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        String[] size = grid.split("x");
+        paths = HotPaths.create();
+        paths.setUp(Integer.parseInt(size[0]), Integer.parseInt(size[1]), density, steps, threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        paths.tearDown();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void simulateOneStep()
+    {
+        paths.simulateOneStep();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void populate()
+    {
+        paths.populate();
+    }
+
+    @Benchmark
+    public Object getAdjacentLocations()
+    {
+        return paths.getAdjacentLocations();
+    }
+
+    @Benchmark
+    public Object getFreeAdjacentLocations()
+    {
+        return paths.getFreeAdjacentLocations();
+    }
+
+    @Benchmark
+    public int freeAdjacent()
+    {
+        return paths.freeAdjacent();
+    }
+
+    @Benchmark
+    public boolean isViable()
+    {
+        return paths.isViable();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object rebuildMipmap()
+    {
+        return paths.rebuildMipmap();
+    }
+}
@@ -0,0 +1,130 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the columnar animal state kept by AnimalStore.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class AnimalStoreTest
+{
+    /**
+     * Every live row of a store must be an animal in the field, so the
+     * live rows of each species always match its population. An animal
+     * displaced from its cell must not be kept alive by its row.
+     */
+    @Test
+    public void liveRowsMatchThePopulation()
+    {
+        for(long seed = 1; seed <= 3; seed++) {
+            Simulator simulator = Simulator.createHeadless(80, 120, true, seed);
+            for(int step = 0; step < 150 && simulator.isViable(); step++) {
+                simulator.simulateOneStep();
+                for(Species species : Species.values()) {
+                    if(species.isAnimal()) {
+                        assertEquals(simulator.getField().getPopulation(species),
+                                     liveRows(simulator.getAnimalStore(species)),
+                                     species + " at step " + simulator.getStep() + " of seed " + seed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Every live row must name the cell its animal is in, so that the
+     * bulk rest puts each animal back where it is.
+     */
+    @Test
+    public void liveRowsAreInTheirAnimalsCells()
+    {
+        Simulator simulator = Simulator.createHeadless(80, 120, true, 4);
+        for(int step = 0; step < 150 && simulator.isViable(); step++) {
+            simulator.simulateOneStep();
+            Field field = simulator.getField();
+            for(Species species : Species.values()) {
+                AnimalStore store = simulator.getAnimalStore(species);
+                for(int i = 0; store != null && i < store.size(); i++) {
+                    if((store.flags[i] & AnimalStore.ALIVE) != 0) {
+                        assertSame(store.animals[i], field.getBeingAt(store.cells[i]),
+                                   species + " row " + i + " at step " + simulator.getStep());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The bulk ageing kernel must age and starve every row, and report
+     * when a row is too old or starving.
+     */
+    @Test
+    public void ageFlagsRowsThatDie()
+    {
+        int[] ages = { 0, 4, 2 };
+        int[] foodLevels = { 10, 10, 5 };
+        int[] hungers = { 1, 1, 5 };
+        assertTrue(AnimalStore.age(ages, foodLevels, hungers, 2, 5) >= 0);
+        assertEquals(1, ages[0]);
+        assertEquals(5, ages[1]);
+        assertEquals(9, foodLevels[0]);
+        // The third row starves once it is included.
+        assertTrue(AnimalStore.age(ages, foodLevels, hungers, 3, 5) < 0);
+        assertEquals(0, foodLevels[2]);
+    }
+
+    /**
+     * The kernel in use must give the same columns and the same verdict
+     * as the scalar loop for every number of rows, including those that
+     * leave rows over after the last whole vector. When the tests run
+     * with the Vector API module (mvn -Pvector test), the kernel in use
+     * must be the vector one.
+     */
+    @Test
+    public void kernelMatchesTheScalarLoop()
+    {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            assertEquals("VectorAgeing", AnimalStore.KERNEL.getClass().getName());
+        }
+        Random rand = new Random(3);
+        for(int size = 0; size <= 100; size++) {
+            for(int maxAge : new int[] { 20, 40 }) {
+                int[] ages = new int[size];
+                int[] foodLevels = new int[size];
+                int[] hungers = new int[size];
+                for(int i = 0; i < size; i++) {
+                    ages[i] = rand.nextInt(40);
+                    foodLevels[i] = 1 + rand.nextInt(size == 0 ? 1 : 200 / size + 5);
+                    hungers[i] = rand.nextBoolean() ? 1 : Animal.INFECTED_HUNGER;
+                }
+                int[] scalarAges = ages.clone();
+                int[] scalarFoodLevels = foodLevels.clone();
+                boolean dying = AnimalStore.KERNEL.age(ages, foodLevels, hungers, size, maxAge) < 0;
+                boolean scalarDying = AnimalStore.ageScalar(scalarAges, scalarFoodLevels, hungers, size, maxAge) < 0;
+                assertEquals(scalarDying, dying, "rows " + size);
+                assertArrayEquals(scalarAges, ages, "rows " + size);
+                assertArrayEquals(scalarFoodLevels, foodLevels, "rows " + size);
+            }
+        }
+    }
+
+    /**
+     * @return The number of rows of the store holding a live animal.
+     */
+    private static int liveRows(AnimalStore store)
+    {
+        int live = 0;
+        for(int i = 0; store != null && i < store.size(); i++) {
+            if((store.flags[i] & AnimalStore.ALIVE) != 0) {
+                live++;
+            }
+        }
+        return live;
+    }
+}
@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a FieldMipmap kept up to date from each step's changes
+ * matches one built again from the whole field.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class FieldMipmapTest
+{
+    private static final int DEPTH = 90;
+    private static final int WIDTH = 150;
+    private static final int STEPS = 120;
+
+    /**
+     * Every level must match a rebuild after every step, whether the
+     * beings act in list order, in columns or in parallel tiles.
+     */
+    @Test
+    public void changesKeepEveryLevelUpToDate()
+    {
+        check(Simulator.createHeadless(DEPTH, WIDTH, false, 1), "serial");
+        check(Simulator.createHeadless(DEPTH, WIDTH, true, 2), "columnar");
+        Simulator parallel = Simulator.createHeadless(DEPTH, WIDTH, false, 3);
+        parallel.setThreads(2, true);
+        try {
+            check(parallel, "parallel");
+        }
+        finally {
+            parallel.setThreads(1);
+        }
+    }
+
+    /**
+     * Step a simulation, applying each step's changes to a mipmap, and
+     * compare it with a rebuild after every step.
+     * @param simulator The simulation.
+     * @param mode The way it is run, for the failure messages.
+     */
+    private static void check(Simulator simulator, String mode)
+    {
+        FieldMipmap mipmap = new FieldMipmap(DEPTH, WIDTH);
+        mipmap.setAll(simulator.getField());
+        // The simulator only works out its changes for an observer
+        // that wants them.
+        simulator.addObserver(new SimulatorObserver() {
+            @Override
+            public void showStatus(int step, Field field)
+            {
+            }
+
+            @Override
+            public boolean wantsChanges()
+            {
+                return true;
+            }
+        });
+        for(int step = 0; step < STEPS && simulator.isViable(); step++) {
+            simulator.simulateOneStep();
+            mipmap.apply(simulator.getField(), simulator.getChanges());
+            FieldMipmap rebuilt = new FieldMipmap(DEPTH, WIDTH);
+            rebuilt.setAll(simulator.getField());
+            for(int level = 0; level < mipmap.getLevels(); level++) {
+                assertArrayEquals(codes(rebuilt, level), codes(mipmap, level),
+                                  mode + ", level " + level + " at step " + simulator.getStep());
+            }
+        }
+    }
+
+    /**
+     * @return Every texel of one level of a mipmap.
+     */
+    private static byte[] codes(FieldMipmap mipmap, int level)
+    {
+        int rows = mipmap.getHeight(level);
+        int cols = mipmap.getWidth(level);
+        byte[] codes = new byte[rows * cols];
+        mipmap.copy(level, 0, 0, rows, cols, codes);
+        return codes;
+    }
+}
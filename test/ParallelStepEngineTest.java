@@ -0,0 +1,101 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a step run by ParallelStepEngine depends only on the seed,
+ * not on the number of threads it runs on.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class ParallelStepEngineTest
+{
+    // The size of the field, wide enough for several columns of tiles.
+    private static final int DEPTH = 100;
+    private static final int WIDTH = 300;
+    private static final int STEPS = 100;
+
+    /**
+     * With intents resolved in a second phase, every thread count,
+     * including one, must leave the same beings in the same cells.
+     */
+    @Test
+    public void intentsGiveTheSameFieldOnAnyNumberOfThreads()
+    {
+        for(long seed = 1; seed <= 2; seed++) {
+            int[] expected = run(seed, 1, true);
+            for(int threads : new int[] { 2, 4 }) {
+                assertArrayEquals(expected, run(seed, threads, true),
+                                  threads + " threads, seed " + seed);
+            }
+        }
+    }
+
+    /**
+     * Without intents, every number of threads above one must leave the
+     * same beings in the same cells. One thread without intents runs the
+     * beings in list order instead of by tile, so it is left out.
+     */
+    @Test
+    public void tilesGiveTheSameFieldOnAnyNumberOfThreads()
+    {
+        for(long seed = 1; seed <= 2; seed++) {
+            int[] expected = run(seed, 2, false);
+            for(int threads : new int[] { 3, 4 }) {
+                assertArrayEquals(expected, run(seed, threads, false),
+                                  threads + " threads, seed " + seed);
+            }
+        }
+    }
+
+    /**
+     * Columnar state is only updated from one thread, so asking for
+     * more threads or for intents must fail rather than be ignored.
+     */
+    @Test
+    public void columnarStateRefusesTheEngine()
+    {
+        Simulator simulator = Simulator.createHeadless(DEPTH, WIDTH, true, 1);
+        assertThrows(IllegalStateException.class, () -> simulator.setThreads(2));
+        assertThrows(IllegalStateException.class, () -> simulator.setThreads(1, true));
+        simulator.setThreads(1);
+    }
+
+    /**
+     * Run a simulation and describe the field it ends with.
+     * @param seed The seed of the run.
+     * @param threads The number of threads each step runs on.
+     * @param resolveIntents Whether placements are resolved from intents.
+     * @return For every cell, 0 if it is empty, otherwise the species'
+     *         ordinal plus one, negated for a dead being; then the
+     *         population of every species.
+     */
+    private static int[] run(long seed, int threads, boolean resolveIntents)
+    {
+        Simulator simulator = Simulator.createHeadless(DEPTH, WIDTH, false, seed);
+        simulator.setThreads(threads, resolveIntents);
+        try {
+            simulator.simulate(STEPS);
+        }
+        finally {
+            simulator.setThreads(1);
+        }
+        Field field = simulator.getField();
+        Species[] species = Species.values();
+        int cells = DEPTH * WIDTH;
+        int[] result = new int[cells + species.length];
+        for(int cell = 0; cell < cells; cell++) {
+            Being aBeing = field.getBeingAt(cell);
+            if(aBeing != null) {
+                int code = aBeing.getSpecies().ordinal() + 1;
+                result[cell] = aBeing.isAlive() ? code : -code;
+            }
+        }
+        for(Species aSpecies : species) {
+            result[cells + aSpecies.ordinal()] = field.getPopulation(aSpecies);
+        }
+        return result;
+    }
+}
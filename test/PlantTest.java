@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of when plants expire, now that they are looked at on the
+ * growth tick they are scheduled for rather than on every step.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class PlantTest
+{
+    /**
+     * No live plant may be left in the field past its expiry. A plant
+     * that is eaten but survives, e.g. because its eater lost its
+     * intent, expires earlier than it was first scheduled for.
+     */
+    @Test
+    public void livePlantsNeverOutliveTheirExpiry()
+    {
+        Simulator simulator = Simulator.createHeadless(100, 200, false, 7);
+        simulator.setThreads(2, true);
+        try {
+            for(int step = 0; step < 200 && simulator.isViable(); step++) {
+                simulator.simulateOneStep();
+                Field field = simulator.getField();
+                for(int cell = 0; cell < field.getDepth() * field.getWidth(); cell++) {
+                    if(field.getBeingAt(cell) instanceof Plant plant && plant.isAlive()) {
+                        assertFalse(plant.isExpired(), plant + " at step " + simulator.getStep());
+                    }
+                }
+            }
+        }
+        finally {
+            simulator.setThreads(1);
+        }
+    }
+}
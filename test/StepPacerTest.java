@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of how StepPacer reacts to its target rate being changed while
+ * a run is paced.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class StepPacerTest
+{
+    /**
+     * Slowing down from full speed must not report the first paced
+     * step as late against the deadline of the last full-speed step.
+     */
+    @Test
+    public void slowingDownFromFullSpeedIsNotAnOverrun() throws InterruptedException
+    {
+        StepPacer pacer = new StepPacer(0);
+        pacer.start();
+        for(int i = 0; i < 3; i++) {
+            pacer.stepTaken();
+        }
+        pacer.setTargetRate(100);
+        // A step taking a few milliseconds.
+        Thread.sleep(5);
+        pacer.stepTaken();
+        assertEquals(0, pacer.getLastOverrun());
+    }
+
+    /**
+     * Speeding up must cut short a pause worked out for the old rate,
+     * rather than wait for it to end.
+     */
+    @Test
+    public void speedingUpCutsThePauseShort() throws InterruptedException
+    {
+        // One step every ten seconds.
+        StepPacer pacer = new StepPacer(0.1);
+        pacer.start();
+        Thread runner = new Thread(pacer::stepTaken);
+        runner.start();
+        Thread.sleep(100);
+        pacer.setTargetRate(1000);
+        runner.join(2000);
+        assertFalse(runner.isAlive(), "still pausing at the old rate");
+    }
+}
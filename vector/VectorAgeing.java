@@ -0,0 +1,48 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Ages whole columns of animal state with the incubating Vector API,
+ * as many rows at a time as the widest vectors the CPU has: 8 with
+ * AVX2 and 16 with AVX-512. The rows left over at the end are done one
+ * at a time.
+ *
+ * This is kept out of the main sources because it needs the
+ * jdk.incubator.vector module both to compile and to run. AnimalStore
+ * loads it by name and falls back to its own loop if it cannot.
+ *
+ * @author Jawhara Jannah and Fatimah Khan
+ * @version 8.0
+ */
+public class VectorAgeing implements AgeingKernel
+{
+    // The widest vector of ints the CPU has.
+    private static final VectorSpecies<Integer> LANES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int age(int[] ages, int[] foodLevels, int[] hungers, int size, int maxAge)
+    {
+        IntVector limit = IntVector.broadcast(LANES, maxAge);
+        IntVector dying = IntVector.zero(LANES);
+        int i = 0;
+        for(int bound = LANES.loopBound(size); i < bound; i += LANES.length()) {
+            IntVector age = IntVector.fromArray(LANES, ages, i).add(1);
+            IntVector food = IntVector.fromArray(LANES, foodLevels, i)
+                                      .sub(IntVector.fromArray(LANES, hungers, i));
+            age.intoArray(ages, i);
+            food.intoArray(foodLevels, i);
+            // The sign bit of a lane is set if age > maxAge or food <= 0.
+            dying = dying.or(limit.sub(age)).or(food.sub(1));
+        }
+        int rest = dying.reduceLanes(VectorOperators.OR);
+        for(; i < size; i++) {
+            int age = ages[i] + 1;
+            int food = foodLevels[i] - hungers[i];
+            ages[i] = age;
+            foodLevels[i] = food;
+            rest |= (maxAge - age) | (food - 1);
+        }
+        return rest;
+    }
+}